@@ -6,12 +6,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 import static ru.practicum.shareit.common.Defaults.X_SHARER_HEADER_NAME;
 
@@ -22,22 +26,29 @@ import static ru.practicum.shareit.common.Defaults.X_SHARER_HEADER_NAME;
 @Validated
 public class BookingController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
+                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                    @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                    @Positive @RequestParam(required = false) Long after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, after={}",
+                stateParam, userId, from, size, after);
+        if (after != null) {
+            return bookingClient.getBookingsAfter(userId, state, after, size);
+        }
         return bookingClient.getBookings(userId, state, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
+                                                 @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         requestDto.invalidityErrorMessage().ifPresent(s -> {
             throw new IllegalArgumentException(s);
@@ -46,28 +57,54 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
+                                                   @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping(value = "/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
-                                                 @PathVariable Long bookingId,
-                                                 @RequestParam boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                       @PathVariable Long bookingId,
+                                                       @RequestParam boolean approved) {
         log.info("Approve booking {}, userId={}, approved={}", bookingId, userId, approved);
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> approveBookings(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                        @RequestBody List<BookingDecisionDto> decisions) {
+        log.info("Approve bookings count={}, userId={}", decisions.size(), userId);
+        if (decisions.isEmpty() || decisions.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("пакет должен содержать от 1 до %d решений", MAX_BATCH_SIZE));
+        }
+        if (!decisions.stream().allMatch(BookingDecisionDto::isComplete)) {
+            throw new IllegalArgumentException("для каждого бронирования нужно указать id и решение");
+        }
+        return bookingClient.approveBookings(userId, decisions);
+    }
+
+    @GetMapping(value = "/owner/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportOwnerBookings(
+            @RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId) {
+        log.info("Export owner bookings userId={}", userId);
+        return bookingClient.exportOwnerBookings(userId);
+    }
+
     @GetMapping(value = "/owner")
-    public ResponseEntity<Object> getOwnerBookings(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
-                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                   @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                   @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getOwnerBookings(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                         @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                         @Positive @RequestParam(required = false) Long after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get owner bookings with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        log.info("Get owner bookings with state {}, userId={}, from={}, size={}, after={}",
+                stateParam, userId, from, size, after);
+        if (after != null) {
+            return bookingClient.getOwnerBookingsAfter(userId, state, after, size);
+        }
         return bookingClient.getOwnerBookings(userId, state, from, size);
     }
 }
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ResponseCache {
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    // generation at which each prefix was last invalidated, so writes drop only overlapping reads
+    private final Map<String, Long> invalidatedAt = new HashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(@Value("${shareit-server.cache.enabled:false}") boolean enabled,
+                         @Value("${shareit-server.cache.max-size:10000}") int maxSize,
+                         @Value("${shareit-server.cache.ttl:5s}") Duration ttl) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static String key(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters) {
+        return path + "|" + userId + "|" + (parameters != null ? new TreeMap<>(parameters) : "");
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    @Nullable
+    public synchronized ResponseEntity<Object> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.storedAt > ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.response;
+    }
+
+    public synchronized void put(String key, ResponseEntity<Object> response, long requestGeneration) {
+        for (Map.Entry<String, Long> invalidated : invalidatedAt.entrySet()) {
+            if (invalidated.getValue() > requestGeneration && key.startsWith(invalidated.getKey())) {
+                return;
+            }
+        }
+        entries.put(key, new Entry(response, System.nanoTime()));
+    }
+
+    public synchronized void invalidate(String... prefixes) {
+        long invalidation = generation.incrementAndGet();
+        for (String prefix : prefixes) {
+            invalidatedAt.put(prefix, invalidation);
+        }
+        entries.keySet().removeIf(key -> {
+            for (String prefix : prefixes) {
+                if (key.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    private static final class Entry {
+        private final ResponseEntity<Object> response;
+        private final long storedAt;
+
+        private Entry(ResponseEntity<Object> response, long storedAt) {
+            this.response = response;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "shareit-server.engine", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateForwardingEngine implements ForwardingEngine {
+
+    private final RestTemplate rest;
+    private final ClientHttpRequestFactory requestFactory;
+    private final boolean passthrough;
+
+    public RestTemplateForwardingEngine(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                                        ClientHttpRequestFactory requestFactory,
+                                        @Value("${shareit-server.passthrough:false}") boolean passthrough) {
+        this.passthrough = passthrough;
+        this.requestFactory = requestFactory;
+        this.rest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+        if (passthrough) {
+            return Mono.just(exchangeRaw(method, path, parameters, requestEntity));
+        }
+
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return Mono.just(ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray()));
+        }
+        return Mono.just(prepareGatewayResponse(shareitServerResponse));
+    }
+
+    @Override
+    public boolean isPassthrough() {
+        return passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders headers,
+                                                              @Nullable Map<String, Object> parameters) {
+        return Mono.fromCallable(() -> {
+            URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+            ClientHttpRequest request = requestFactory.createRequest(uri, HttpMethod.GET);
+            request.getHeaders().addAll(headers);
+            ClientHttpResponse response = request.execute();
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .headers(ForwardingEngine.passthroughHeaders(response.getHeaders()))
+                    .body(out -> {
+                        try (response) {
+                            copy(response.getBody(), out);
+                        }
+                    });
+        });
+    }
+
+    // flushes whenever the server has nothing more buffered, so a chunk never waits in the servlet buffer
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            if (in.available() == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    private ResponseEntity<Object> exchangeRaw(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                               HttpEntity<Object> requestEntity) {
+        ResponseEntity<byte[]> response;
+        try {
+            if (parameters != null) {
+                response = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                response = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(ForwardingEngine.passthroughHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(ForwardingEngine.passthroughHeaders(response.getHeaders()))
+                .body(response.getBody());
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(ForwardingEngine.passthroughHeaders(response.getHeaders()));
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "shareit-server.engine", havingValue = "reactive")
+public class WebClientForwardingEngine implements ForwardingEngine {
+
+    private final WebClient webClient;
+    private final boolean passthrough;
+
+    public WebClientForwardingEngine(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                     @Value("${shareit-server.passthrough:false}") boolean passthrough,
+                                     @Value("${shareit-server.http.max-total:200}") int maxTotal,
+                                     @Value("${shareit-server.http.connect-timeout:2s}") Duration connectTimeout,
+                                     @Value("${shareit-server.http.read-timeout:10s}") Duration readTimeout,
+                                     @Value("${shareit-server.http.pool-timeout:1s}") Duration poolTimeout,
+                                     @Value("${shareit-server.http.idle-timeout:30s}") Duration idleTimeout) {
+        this.passthrough = passthrough;
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(poolTimeout)
+                .maxIdleTime(idleTimeout)
+                .evictInBackground(idleTimeout)
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        this.webClient = builder
+                .baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders requestHeaders,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(requestHeaders))
+                .body(body != null ? BodyInserters.fromValue(body) : BodyInserters.empty())
+                .exchangeToMono(response -> {
+                    HttpHeaders headers = ForwardingEngine.passthroughHeaders(response.headers().asHttpHeaders());
+                    Mono<?> responseBody = response.statusCode().is2xxSuccessful() && !passthrough
+                            ? response.bodyToMono(Object.class)
+                            : response.bodyToMono(byte[].class);
+                    return responseBody
+                            .map(b -> ResponseEntity.status(response.statusCode()).headers(headers).body((Object) b))
+                            .defaultIfEmpty(ResponseEntity.status(response.statusCode()).headers(headers).build());
+                });
+    }
+
+    @Override
+    public boolean isPassthrough() {
+        return passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders requestHeaders,
+                                                              @Nullable Map<String, Object> parameters) {
+        return webClient.get()
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(requestHeaders))
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(ForwardingEngine.passthroughHeaders(response.getHeaders()))
+                        .body(out -> {
+                            if (response.getBody() != null) {
+                                DataBufferUtils.write(response.getBody(), out)
+                                        .doOnNext(buffer -> {
+                                            DataBufferUtils.release(buffer);
+                                            flush(out);
+                                        })
+                                        .blockLast();
+                            }
+                        }));
+    }
+
+    private static void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.client.StreamingResponseBodyMessageConverter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final int streamingPoolSize;
+    private final Duration streamingTimeout;
+    private final ObjectProvider<ThreadFactory> virtualThreadFactory;
+
+    public WebConfig(@Value("${shareit.streaming.pool-size:32}") int streamingPoolSize,
+                     @Value("${shareit.streaming.timeout:1h}") Duration streamingTimeout,
+                     @Qualifier("virtualThreadFactory") ObjectProvider<ThreadFactory> virtualThreadFactory) {
+        this.streamingPoolSize = streamingPoolSize;
+        this.streamingTimeout = streamingTimeout;
+        this.virtualThreadFactory = virtualThreadFactory;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new StreamingResponseBodyMessageConverter());
+    }
+
+    // exports hold an async thread and a server connection for the whole transfer;
+    // requests over the pool size wait in the queue without a thread until the timeout
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingTaskExecutor());
+        configurer.setDefaultTimeout(streamingTimeout.toMillis());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor streamingTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(streamingPoolSize);
+        executor.setMaxPoolSize(streamingPoolSize);
+        executor.setThreadNamePrefix("streaming-");
+        // with virtual threads the pool size still caps concurrent streams, but a blocked stream frees its carrier
+        virtualThreadFactory.ifAvailable(executor::setThreadFactory);
+        return executor;
+    }
+}
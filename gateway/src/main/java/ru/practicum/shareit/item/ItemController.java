@@ -2,16 +2,21 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static ru.practicum.shareit.common.Defaults.X_SHARER_HEADER_NAME;
 
@@ -22,11 +27,13 @@ import static ru.practicum.shareit.common.Defaults.X_SHARER_HEADER_NAME;
 @Validated
 public class ItemController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
-                                          @RequestBody @Valid ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> addItem(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                @RequestBody @Valid ItemDto itemDto) {
         log.info("Add item item={}, userId={}", itemDto, userId);
         if (!itemDto.canCreate()) {
             throw new IllegalArgumentException();
@@ -34,10 +41,24 @@ public class ItemController {
         return itemClient.addItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addItems(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                 @RequestBody List<ItemDto> items) {
+        log.info("Add items count={}, userId={}", items.size(), userId);
+        if (items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("пакет должен содержать от 1 до %d предметов", MAX_BATCH_SIZE));
+        }
+        if (!items.stream().allMatch(ItemDto::canCreate)) {
+            throw new IllegalArgumentException();
+        }
+        return itemClient.addItems(userId, items);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
-                                             @RequestBody @Valid ItemDto itemDto,
-                                             @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                   @RequestBody @Valid ItemDto itemDto,
+                                                   @PathVariable long itemId) {
         log.info("Update item item={}, userId={}, itemId={}", itemDto, userId, itemId);
         if (!itemDto.canUpdate()) {
             throw new IllegalArgumentException();
@@ -46,35 +67,62 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader(X_SHARER_HEADER_NAME) @Positive Long userId,
-                                          @PathVariable @Positive long itemId) {
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader(X_SHARER_HEADER_NAME) @Positive Long userId,
+                                                @PathVariable @Positive long itemId) {
 
         log.info("Get item userId={}, itemId={}", userId, itemId);
         return itemClient.getItem(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsForSharer(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
-                                                    @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                    @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsForSharer(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                          @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                          @Positive @RequestParam(defaultValue = "10") Integer size) {
         log.info("Get items for sharer  userId={}, from={}, size={}", userId, from, size);
         return itemClient.getAllForSharer(userId, from, size);
     }
 
 
+    @GetMapping("/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportItems(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId) {
+        log.info("Export items userId={}", userId);
+        return itemClient.export(userId);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
-                                             @RequestParam String text,
-                                             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                             @Positive @RequestParam(defaultValue = "10") Integer size) {
-        log.info("Search  text={}, from={}, size={}", text, from, size);
-        return itemClient.search(userId, text, from, size);
+    public Mono<ResponseEntity<Object>> searchItem(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                   @RequestParam String text,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                   @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                   @Positive @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Search  text={}, start={}, end={}, from={}, size={}", text, start, end, from, size);
+        if ((start == null) != (end == null) || (start != null && !end.isAfter(start))) {
+            throw new IllegalArgumentException("период поиска должен содержать начало и конец, конец позже начала");
+        }
+        return itemClient.search(userId, text, start, end, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                        @PathVariable @Positive long itemId,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get availability userId={}, itemId={}, from={}, to={}", userId, itemId, from, to);
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new IllegalArgumentException("конец периода должен быть позже начала");
+        }
+        return itemClient.getAvailability(userId, itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
-                                             @PathVariable @Positive long itemId,
-                                             @Valid @RequestBody CommentDto comment) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                   @PathVariable @Positive long itemId,
+                                                   @Valid @RequestBody CommentDto comment) {
 
         log.info("Add comment userId={}, itemId={}, comment={}", userId, itemId, comment);
         return itemClient.addComment(userId, itemId, comment);
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -25,32 +26,32 @@ public class ItemRequestController {
     private final ItemRequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> addRequest(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
-                                             @Valid @RequestBody ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> addRequest(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                   @Valid @RequestBody ItemRequestDto requestDto) {
 
         log.info("Add request userId={}, request={}", userId, requestDto);
         return requestClient.addRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserRequests(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getUserRequests(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId) {
 
         log.info("Get user requests userId={}", userId);
         return requestClient.getUserRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
-                                                 @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                 @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                       @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                       @Positive @RequestParam(defaultValue = "10") Integer size) {
 
         log.info("Get all requests userId={}, from={}, size={}", userId, from, size);
         return requestClient.getAllRequests(userId, from, size);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getRequest(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
-                                             @PathVariable @PositiveOrZero long id) {
+    public Mono<ResponseEntity<Object>> getRequest(@RequestHeader(X_SHARER_HEADER_NAME) @Positive long userId,
+                                                   @PathVariable @PositiveOrZero long id) {
 
         log.info("Get request userId={}, id={}", userId, id);
         return requestClient.getRequestById(userId, id);
@@ -6,10 +6,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @Controller
 @RequestMapping(path = "/users")
@@ -21,19 +24,26 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getUsers(@PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                 @Positive @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Get users from={}, size={}", from, size);
+        return userClient.getUsers(from, size);
+    }
+
+    @GetMapping(params = {"!from", "!size"})
+    public Mono<ResponseEntity<StreamingResponseBody>> getAllUsers() {
         log.info("Get get all users");
         return userClient.getAllUsers();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUser(@PathVariable @Positive long id) {
+    public Mono<ResponseEntity<Object>> getUser(@PathVariable @Positive long id) {
         log.info("Get user id={}", id);
         return userClient.getUser(id);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@Valid @RequestBody UserDto user) {
+    public Mono<ResponseEntity<Object>> addUser(@Valid @RequestBody UserDto user) {
         log.info("Add user user={}", user);
         if (user.getEmail() == null) {
             throw new IllegalArgumentException("Отсутствует email");
@@ -42,13 +52,13 @@ public class UserController {
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable @Positive long id, @Valid @RequestBody UserDto user) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable @Positive long id, @Valid @RequestBody UserDto user) {
         log.info("Update user id={}, user={}", id, user);
         return userClient.updateUser(id, user);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUser(@PathVariable @Positive long id) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable @Positive long id) {
         log.info("Delete user id={}", id);
         return userClient.removeUser(id);
     }
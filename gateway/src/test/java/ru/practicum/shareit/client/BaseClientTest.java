@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+
+class BaseClientTest {
+
+    private final StreamingResponseBody serverBody = out -> out.write("[{\"id\":1}]".getBytes(StandardCharsets.UTF_8));
+
+    private ForwardingEngine engine;
+
+    @BeforeEach
+    void setup() {
+        engine = Mockito.mock(ForwardingEngine.class);
+        Mockito.when(engine.isPassthrough()).thenReturn(true);
+        Mockito.when(engine.stream(any(), any(), any()))
+                .thenReturn(Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(serverBody)));
+        Mockito.when(engine.exchange(any(), any(), any(), any(), any()))
+                .thenReturn(Mono.just(ResponseEntity.ok("buffered")));
+    }
+
+    @Test
+    void passthroughGetIsStreamed() throws IOException {
+        BaseClient client = new BaseClient("/items", engine, new ResponseCache(false, 10, Duration.ofMinutes(1)));
+
+        ResponseEntity<Object> response = client.get("/1", 1L).block();
+
+        Mockito.verify(engine).stream(eq("/items/1"), any(), isNull());
+        Mockito.verify(engine, Mockito.never()).exchange(any(), any(), any(), any(), any());
+        assertThat(response.getBody(), instanceOf(StreamingResponseBody.class));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        new StreamingResponseBodyMessageConverter().write((StreamingResponseBody) response.getBody(),
+                MediaType.APPLICATION_JSON, output);
+        assertThat(output.getBodyAsString(), equalTo("[{\"id\":1}]"));
+    }
+
+    @Test
+    void cachedGetIsBuffered() {
+        BaseClient client = new BaseClient("/items", engine, new ResponseCache(true, 10, Duration.ofMinutes(1)));
+
+        assertThat(client.get("/1", 1L).block().getBody(), equalTo("buffered"));
+        Mockito.verify(engine, Mockito.never()).stream(any(), any(), any());
+    }
+
+    @Test
+    void writeIsBuffered() {
+        BaseClient client = new BaseClient("/items", engine, new ResponseCache(false, 10, Duration.ofMinutes(1)));
+
+        assertThat(client.patch("/1", 1L).block().getBody(), equalTo("buffered"));
+        Mockito.verify(engine).exchange(eq(HttpMethod.PATCH), eq("/items/1"), any(), isNull(), isNull());
+        Mockito.verify(engine, Mockito.never()).stream(any(), any(), any());
+    }
+}
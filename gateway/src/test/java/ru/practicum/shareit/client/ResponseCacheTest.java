@@ -0,0 +1,100 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+class ResponseCacheTest {
+
+    private final ResponseEntity<Object> response = ResponseEntity.ok("body");
+
+    @Test
+    void keyIgnoresParameterOrder() {
+        assertThat(ResponseCache.key("/items", 1L, Map.of("from", 0, "size", 10)),
+                equalTo(ResponseCache.key("/items", 1L, Map.of("size", 10, "from", 0))));
+    }
+
+    @Test
+    void getReturnsStoredResponse() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofMinutes(1));
+        cache.put("/items/1|1|", response, cache.generation());
+
+        assertThat(cache.get("/items/1|1|"), sameInstance(response));
+        assertThat(cache.get("/items/2|1|"), nullValue());
+    }
+
+    @Test
+    void entryExpiresAfterTtl() throws InterruptedException {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofMillis(1));
+        cache.put("/items/1|1|", response, cache.generation());
+
+        Thread.sleep(20);
+        assertThat(cache.get("/items/1|1|"), nullValue());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        ResponseCache cache = new ResponseCache(true, 2, Duration.ofMinutes(1));
+        cache.put("/items/1|1|", response, cache.generation());
+        cache.put("/items/2|1|", response, cache.generation());
+        cache.get("/items/1|1|");
+        cache.put("/items/3|1|", response, cache.generation());
+
+        assertThat(cache.get("/items/1|1|"), sameInstance(response));
+        assertThat(cache.get("/items/2|1|"), nullValue());
+        assertThat(cache.get("/items/3|1|"), sameInstance(response));
+    }
+
+    @Test
+    void invalidateRemovesOnlyMatchingPrefixes() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofMinutes(1));
+        cache.put("/items/1|1|", response, cache.generation());
+        cache.put("/bookings/1|1|", response, cache.generation());
+        cache.put("/users/1|null|", response, cache.generation());
+
+        cache.invalidate("/bookings", "/items");
+
+        assertThat(cache.get("/items/1|1|"), nullValue());
+        assertThat(cache.get("/bookings/1|1|"), nullValue());
+        assertThat(cache.get("/users/1|null|"), sameInstance(response));
+    }
+
+    @Test
+    void putAfterOverlappingInvalidateIsDropped() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofMinutes(1));
+        long generation = cache.generation();
+
+        cache.invalidate("/items");
+        cache.put("/items/1|1|", response, generation);
+
+        assertThat(cache.get("/items/1|1|"), nullValue());
+    }
+
+    @Test
+    void putAfterUnrelatedInvalidateIsKept() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofMinutes(1));
+        long generation = cache.generation();
+
+        cache.invalidate("/users");
+        cache.put("/items/1|1|", response, generation);
+
+        assertThat(cache.get("/items/1|1|"), sameInstance(response));
+    }
+
+    @Test
+    void putStartedAfterInvalidateIsKept() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofMinutes(1));
+        cache.invalidate("/items");
+
+        cache.put("/items/1|1|", response, cache.generation());
+
+        assertThat(cache.get("/items/1|1|"), sameInstance(response));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ItemExportStreamingTest {
+
+    private static final String FIRST_CHUNK = "[{\"id\":1}";
+    private static final String SECOND_CHUNK = ",{\"id\":2}]";
+
+    private static final HttpServer server = startServer();
+    private static final CountDownLatch firstChunkRead = new CountDownLatch(1);
+    private static final AtomicBoolean streamed = new AtomicBoolean();
+    private static final AtomicInteger activeStreams = new AtomicInteger();
+
+    @Autowired
+    private ThreadPoolTaskExecutor streamingTaskExecutor;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void exportIsRelayedChunkByChunk() throws Exception {
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/export"))
+                        .header("X-Sharer-User-Id", "1")
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+
+        assertThat(response.statusCode(), equalTo(200));
+        try (InputStream body = response.body()) {
+            // the server holds back the second chunk until the first one has reached the client
+            assertThat(new String(body.readNBytes(FIRST_CHUNK.length()), StandardCharsets.UTF_8),
+                    equalTo(FIRST_CHUNK));
+            activeStreams.set(streamingTaskExecutor.getActiveCount());
+            firstChunkRead.countDown();
+            assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8), equalTo(SECOND_CHUNK));
+        }
+        assertThat(streamed.get(), equalTo(true));
+        assertThat(activeStreams.get(), equalTo(1));
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/items/export", exchange -> {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(FIRST_CHUNK.getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    streamed.set(firstChunkRead.await(10, TimeUnit.SECONDS));
+                    out.write(SECOND_CHUNK.getBytes(StandardCharsets.UTF_8));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "booking_id")
     private Long id;
 
@@ -38,4 +39,8 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column
     private BookingStatus status;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
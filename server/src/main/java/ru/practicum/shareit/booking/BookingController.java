@@ -1,12 +1,21 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.common.JsonStreams;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -22,6 +31,7 @@ import static ru.practicum.shareit.common.Constants.userIdRequestHeaderName;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingDto addBooking(@RequestHeader(userIdRequestHeaderName) Long bookerId,
@@ -41,12 +51,24 @@ public class BookingController {
         return bookingService.approveBooking(sharerId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> approveBookings(@RequestHeader(userIdRequestHeaderName) Long sharerId,
+                                                          @RequestBody List<BookingDecisionDto> decisions,
+                                                          HttpServletRequest request) {
+        log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
+        return bookingService.approveBookings(sharerId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@RequestHeader(userIdRequestHeaderName) Long sharerId,
                                  @PathVariable Long bookingId,
-                                 HttpServletRequest request) {
+                                 HttpServletRequest request,
+                                 WebRequest webRequest) {
 
         log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
+        if (webRequest.checkNotModified(bookingService.getBookingETag(sharerId, bookingId))) {
+            return null;
+        }
         return bookingService.getBooking(sharerId, bookingId);
     }
 
@@ -55,20 +77,37 @@ public class BookingController {
                                             @RequestParam(defaultValue = "ALL") BookingState state,
                                             @RequestParam(defaultValue = "0")  @PositiveOrZero int from,
                                             @RequestParam(defaultValue = "10") @Positive int size,
+                                            @RequestParam(required = false) @Positive Long after,
                                             HttpServletRequest request) {
         log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
 
+        if (after != null) {
+            return bookingService.getUserBookingsAfter(sharerId, state, after, size);
+        }
         return bookingService.getUserBookings(sharerId, state, from, size);
     }
 
+    @GetMapping(value = "/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader(userIdRequestHeaderName) Long sharerId,
+                                                                     HttpServletRequest request,
+                                                                     HttpServletResponse response) {
+        log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
+        return JsonStreams.<BookingExportDto>ndjson(request, response, objectMapper,
+                action -> bookingService.exportOwnerBookings(sharerId, action));
+    }
+
     @GetMapping(value = "/owner")
     public List<BookingDto> getOwnerBookings(@RequestHeader(userIdRequestHeaderName) Long sharerId,
                                              @RequestParam(defaultValue = "ALL") BookingState state,
                                              @RequestParam(defaultValue = "0")  @PositiveOrZero int from,
                                              @RequestParam(defaultValue = "10") @Positive int size,
+                                             @RequestParam(required = false) @Positive Long after,
                                              HttpServletRequest request) {
         log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
 
+        if (after != null) {
+            return bookingService.getOwnerBookingsAfter(sharerId, state, after, size);
+        }
         return bookingService.getOwnerBookings(sharerId, state, from, size);
     }
 }
@@ -1,17 +1,31 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto addBooking(Long bookerId, BookingDto booking);
 
     BookingDto approveBooking(Long sharerId, Long bookingId, boolean approved);
 
+    List<BookingDecisionResultDto> approveBookings(Long sharerId, List<BookingDecisionDto> decisions);
+
     BookingDto getBooking(Long userId, Long bookingId);
 
+    String getBookingETag(Long userId, Long bookingId);
+
     List<BookingDto> getUserBookings(Long userId, BookingState state, int from, int size);
 
     List<BookingDto> getOwnerBookings(Long userId, BookingState state, int from, int size);
+
+    List<BookingDto> getUserBookingsAfter(Long userId, BookingState state, Long after, int size);
+
+    List<BookingDto> getOwnerBookingsAfter(Long userId, BookingState state, Long after, int size);
+
+    void exportOwnerBookings(Long userId, Consumer<BookingExportDto> action);
 }
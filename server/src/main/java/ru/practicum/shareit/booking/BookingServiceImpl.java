@@ -1,15 +1,20 @@
 package ru.practicum.shareit.booking;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoMapper;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.common.NormalizedPageRequest;
+import ru.practicum.shareit.error.exception.DataConflictException;
 import ru.practicum.shareit.error.exception.EntityNotFoundException;
 import ru.practicum.shareit.error.exception.InvalidEntityException;
 import ru.practicum.shareit.item.dto.ItemDtoMapper;
@@ -17,22 +22,43 @@ import ru.practicum.shareit.item.exception.ItemUnavailableException;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDtoMapper;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.storage.UserIdCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
 
+    private static final String OVERLAP_CONSTRAINT = "excl_bookings_approved_overlap";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserIdCache userIdCache;
+    private final boolean lockItems;
+
+    public BookingServiceImpl(BookingRepository bookingRepository, ItemRepository itemRepository,
+                              UserRepository userRepository, UserIdCache userIdCache,
+                              @Value("${shareit.booking.lock-items:false}") boolean lockItems) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.userIdCache = userIdCache;
+        this.lockItems = lockItems;
+    }
 
     @Override
     public BookingDto addBooking(Long bookerId, BookingDto bookingDto) {
@@ -51,6 +77,11 @@ public class BookingServiceImpl implements BookingService {
             throw new EntityNotFoundException("владелец не может бронировать предмет");
         }
 
+        if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+                item.getId(), BookingStatus.APPROVED, bookingDto.getEnd(), bookingDto.getStart())) {
+            throw new DataConflictException(String.format("предмет [%d] уже забронирован на это время", item.getId()));
+        }
+
         var booking = BookingDtoMapper.fromDto(bookingDto);
         booking.setStatus(BookingStatus.WAITING);
         booking.setItem(item);
@@ -74,16 +105,151 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus().equals(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED)) {
             throw new InvalidEntityException("статус бронирования уже выставлен");
         }
+        if (approved) {
+            // without an exclusion constraint approvals of one item are serialized on its row lock,
+            // with it a racing overlap fails on flush below
+            if (lockItems) {
+                itemRepository.findByIdForUpdate(booking.getItem().getId());
+            }
+            if (bookingRepository.existsByItemIdAndStatusAndIdNotAndStartBeforeAndEndAfter(
+                    booking.getItem().getId(), BookingStatus.APPROVED, bookingId, booking.getEnd(), booking.getStart())) {
+                throw new DataConflictException(
+                        String.format("предмет [%d] уже забронирован на это время", booking.getItem().getId()));
+            }
+        }
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        bookingRepository.save(booking);
+        try {
+            bookingRepository.saveAndFlush(booking);
+        } catch (OptimisticLockingFailureException e) {
+            throw new DataConflictException(
+                    String.format("бронирование с id [%d] было изменено другим запросом", bookingId));
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            throw new DataConflictException(
+                    String.format("предмет [%d] уже забронирован на это время", booking.getItem().getId()));
+        }
         return BookingDtoMapper.toDto(booking,
                 ItemDtoMapper.toDto(booking.getItem(), null, null, null),
                 UserDtoMapper.toDto(booking.getBooker()));
     }
 
+    @Override
+    public List<BookingDecisionResultDto> approveBookings(Long sharerId, List<BookingDecisionDto> decisions) {
+        if (!userIdCache.exists(sharerId)) {
+            throw new UserNotFoundException(sharerId);
+        }
+        Map<Long, Boolean> approvals = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (decision.getBookingId() == null || decision.getApproved() == null) {
+                throw new InvalidEntityException("для каждого бронирования нужно указать id и решение");
+            }
+            if (approvals.put(decision.getBookingId(), decision.getApproved()) != null) {
+                throw new InvalidEntityException(
+                        String.format("бронирование с id [%d] повторяется в пакете", decision.getBookingId()));
+            }
+        }
+
+        // items are locked in id order before the bookings are read, the same order single approvals use;
+        // with the exclusion constraint a racing overlap fails the batch update instead
+        if (lockItems) {
+            itemRepository.findAllByBookingIdsForUpdate(sharerId, approvals.keySet());
+        }
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemByIdIn(approvals.keySet()).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Long, BookingDecisionResultDto> results = new HashMap<>();
+        List<Booking> toApprove = new ArrayList<>();
+        List<Booking> toReject = new ArrayList<>();
+        approvals.forEach((bookingId, approved) -> {
+            var booking = bookings.get(bookingId);
+            if (booking == null) {
+                results.put(bookingId, new BookingDecisionResultDto(bookingId, null,
+                        String.format("бронирование с id [%d] не найдено", bookingId)));
+            } else if (!booking.getItem().getSharerId().equals(sharerId)) {
+                results.put(bookingId, new BookingDecisionResultDto(bookingId, null,
+                        String.format("пользователь [%d] не является владельцем предмета [%d]",
+                                sharerId, booking.getItem().getId())));
+            } else if (booking.getStatus().equals(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED)) {
+                results.put(bookingId, new BookingDecisionResultDto(bookingId, booking.getStatus(),
+                        "статус бронирования уже выставлен"));
+            } else {
+                (approved ? toApprove : toReject).add(booking);
+            }
+        });
+
+        // rejections go first, so they free their periods for approvals from the same batch
+        updateStatus(sharerId, toReject, BookingStatus.REJECTED, results);
+
+        Set<Long> overlapping = toApprove.isEmpty() ? Set.of() : Set.copyOf(bookingRepository.findOverlappingApprovedIds(
+                toApprove.stream().map(Booking::getId).collect(Collectors.toList())));
+        Map<Long, List<Booking>> accepted = new HashMap<>();
+        for (Booking booking : toApprove) {
+            var sameItem = accepted.computeIfAbsent(booking.getItem().getId(), id -> new ArrayList<>());
+            if (overlapping.contains(booking.getId()) || sameItem.stream().anyMatch(b ->
+                    b.getStart().isBefore(booking.getEnd()) && b.getEnd().isAfter(booking.getStart()))) {
+                results.put(booking.getId(), new BookingDecisionResultDto(booking.getId(), booking.getStatus(),
+                        String.format("предмет [%d] уже забронирован на это время", booking.getItem().getId())));
+            } else {
+                sameItem.add(booking);
+            }
+        }
+        updateStatus(sharerId, accepted.values().stream().flatMap(List::stream).collect(Collectors.toList()),
+                BookingStatus.APPROVED, results);
+
+        return approvals.keySet().stream()
+                .map(results::get)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private void updateStatus(Long sharerId, List<Booking> bookings, BookingStatus status,
+                              Map<Long, BookingDecisionResultDto> results) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Long> ids = bookings.stream().map(Booking::getId).collect(Collectors.toList());
+        int updated;
+        try {
+            updated = bookingRepository.updateStatusByOwner(sharerId, ids, status);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            throw new DataConflictException("подтверждаемые бронирования пересекаются по времени");
+        }
+        if (updated != ids.size()) {
+            throw new DataConflictException("бронирования пакета были изменены другим запросом");
+        }
+        ids.forEach(id -> results.put(id, new BookingDecisionResultDto(id, status, null)));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BookingDto getBooking(Long userId, Long bookingId) {
+        var booking = findVisibleBooking(userId, bookingId);
+        var user = UserDtoMapper.toDto(booking.getBooker());
+        var item = ItemDtoMapper.toDto(booking.getItem(), null, null, null);
+
+        System.out.println("booking getting start: " + booking.getStart());
+        return BookingDtoMapper.toDto(booking, item, user);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getBookingETag(Long userId, Long bookingId) {
+        var booking = findVisibleBooking(userId, bookingId);
+        return String.format("booking-%d-%d-%d-%d", bookingId, booking.getVersion(),
+                booking.getItem().getVersion(), booking.getBooker().getVersion());
+    }
+
+    // hibernate does not extract names of exclusion constraints, the database message carries it
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(OVERLAP_CONSTRAINT);
+    }
+
+    private Booking findVisibleBooking(Long userId, Long bookingId) {
         var booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException(
                         String.format("бронирование с id [%d] не найдено", bookingId))
@@ -95,20 +261,16 @@ public class BookingServiceImpl implements BookingService {
                     String.format("пользователь [%d] не является владельцем предмета [%d] или создателем бронирования",
                             userId, booking.getItem().getId()));
         }
-        var user = UserDtoMapper.toDto(booking.getBooker());
-        var item = ItemDtoMapper.toDto(booking.getItem(), null, null, null);
-
-        System.out.println("booking getting start: " + booking.getStart());
-        return BookingDtoMapper.toDto(booking, item, user);
+        return booking;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> getUserBookings(Long userId, BookingState state, int from, int size) {
-        if (!userRepository.existsById(userId)) {
+        if (!userIdCache.exists(userId)) {
             throw new UserNotFoundException(userId);
         }
-        Page<Booking> bookings = null;
+        List<Booking> bookings = null;
         PageRequest page = new NormalizedPageRequest(from, size);
         var now = LocalDateTime.now();
         switch (state) {
@@ -155,11 +317,11 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public List<BookingDto> getOwnerBookings(Long sharerId, BookingState state, int from, int size) {
 
-        if (!userRepository.existsById(sharerId)) {
+        if (!userIdCache.exists(sharerId)) {
             throw new UserNotFoundException(sharerId);
         }
 
-        Page<Booking> bookings = null;
+        List<Booking> bookings = null;
         PageRequest page = new NormalizedPageRequest(from, size);
         var now = LocalDateTime.now();
         switch (state) {
@@ -190,4 +352,91 @@ public class BookingServiceImpl implements BookingService {
                         UserDtoMapper.toDto(booking.getBooker())))
                 .collect(Collectors.toUnmodifiableList());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getUserBookingsAfter(Long userId, BookingState state, Long after, int size) {
+        if (!userIdCache.exists(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        List<Booking> bookings = null;
+        PageRequest page = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"));
+        var now = LocalDateTime.now();
+        switch (state) {
+            case ALL:
+                bookings = bookingRepository.findByBookerIdAndIdLessThan(userId, after, page);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findByBookerIdAndIdLessThanAndStartBeforeAndEndAfter(
+                        userId, after, now, now, page);
+                break;
+            case PAST:
+                bookings = bookingRepository.findByBookerIdAndIdLessThanAndEndBefore(userId, after, now, page);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findByBookerIdAndIdLessThanAndStartAfter(userId, after, now, page);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findByBookerIdAndIdLessThanAndStatus(
+                        userId, after, BookingStatus.WAITING, page);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findByBookerIdAndIdLessThanAndStatus(
+                        userId, after, BookingStatus.REJECTED, page);
+                break;
+        }
+        return toDtos(bookings);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getOwnerBookingsAfter(Long sharerId, BookingState state, Long after, int size) {
+        if (!userIdCache.exists(sharerId)) {
+            throw new UserNotFoundException(sharerId);
+        }
+        List<Booking> bookings = null;
+        PageRequest page = PageRequest.of(0, size);
+        var now = LocalDateTime.now();
+        switch (state) {
+            case ALL:
+                bookings = bookingRepository.findAllByOwnerAfter(sharerId, after, page);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findCurrentByOwnerAfter(sharerId, after, now, now, page);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastByOwnerAfter(sharerId, after, now, page);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureByOwnerAfter(sharerId, after, now, page);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findByOwnerAndStatusAfter(sharerId, after, BookingStatus.WAITING, page);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findByOwnerAndStatusAfter(sharerId, after, BookingStatus.REJECTED, page);
+                break;
+        }
+        return toDtos(bookings);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOwnerBookings(Long sharerId, Consumer<BookingExportDto> action) {
+        if (!userIdCache.exists(sharerId)) {
+            throw new UserNotFoundException(sharerId);
+        }
+        try (Stream<BookingExportDto> bookings = bookingRepository.streamByOwner(sharerId)) {
+            bookings.forEach(action);
+        }
+    }
+
+    private static List<BookingDto> toDtos(List<Booking> bookings) {
+        return bookings.stream()
+                .map(booking -> BookingDtoMapper.toDto(
+                        booking,
+                        ItemDtoMapper.toDto(booking.getItem(), null, null, null),
+                        UserDtoMapper.toDto(booking.getBooker())))
+                .collect(Collectors.toUnmodifiableList());
+    }
 }
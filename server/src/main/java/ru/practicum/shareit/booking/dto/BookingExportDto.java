@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+import static ru.practicum.shareit.common.Constants.defaultJsonDateTimePattern;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingExportDto {
+    private Long id;
+    private Long itemId;
+    private String itemName;
+    private Long bookerId;
+    @JsonFormat(pattern = defaultJsonDateTimePattern)
+    private LocalDateTime start;
+    @JsonFormat(pattern = defaultJsonDateTimePattern)
+    private LocalDateTime end;
+    private BookingStatus status;
+}
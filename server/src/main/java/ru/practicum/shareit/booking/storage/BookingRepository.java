@@ -1,37 +1,121 @@
 package ru.practicum.shareit.booking.storage;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    Page<Booking> findByBookerId(Long bookerId, Pageable page);
+    List<Booking> findByBookerId(Long bookerId, Pageable page);
 
-    Page<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable page);
+    List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable page);
 
-    Page<Booking> findByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime now, LocalDateTime after, Pageable page);
+    List<Booking> findByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime now, LocalDateTime after, Pageable page);
 
-    Page<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime now, Pageable page);
+    List<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime now, Pageable page);
 
-    Page<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime now, Pageable page);
+    List<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime now, Pageable page);
 
     List<Booking> findByBookerIdAndItemId(Long bookerId, Long itemId);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingExportDto(" +
+            "b.id, i.id, i.name, b.booker.id, b.start, b.end, b.status) " +
+            "from Booking b " +
+            "join b.item i " +
+            "where i.sharerId = :sharerId " +
+            "order by b.id")
+    Stream<BookingExportDto> streamByOwner(@Param("sharerId") Long sharerId);
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(Long itemId, BookingStatus status,
+                                                             LocalDateTime end, LocalDateTime start);
+
+    @Query("select new ru.practicum.shareit.item.dto.IntervalDto(b.start, b.end) " +
+            "from Booking b " +
+            "where b.item.id = :itemId " +
+            "and b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "and b.start < :to " +
+            "and b.end > :from " +
+            "order by b.start")
+    List<IntervalDto> findApprovedPeriods(@Param("itemId") Long itemId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+    @Query("select distinct b.item.id " +
+            "from Booking b " +
+            "where b.item.id in :itemIds " +
+            "and b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "and b.start < :end " +
+            "and b.end > :start")
+    List<Long> findBookedItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
+
+    boolean existsByItemIdAndStatusAndIdNotAndStartBeforeAndEndAfter(Long itemId, BookingStatus status, Long bookingId,
+                                                                     LocalDateTime end, LocalDateTime start);
+
+    @Query("select b " +
+            "from Booking b " +
+            "JOIN FETCH b.item " +
+            "where b.id in :ids")
+    List<Booking> findAllWithItemByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.id " +
+            "from Booking b " +
+            "where b.id in :ids " +
+            "and exists (select o.id " +
+            "from Booking o " +
+            "where o.item = b.item " +
+            "and o.id <> b.id " +
+            "and o.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "and o.start < b.end " +
+            "and o.end > b.start)")
+    List<Long> findOverlappingApprovedIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b " +
+            "set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :ids " +
+            "and b.status <> :status " +
+            "and b.item.id in (select i.id from Item i where i.sharerId = :ownerId)")
+    int updateStatusByOwner(@Param("ownerId") Long ownerId,
+                            @Param("ids") Collection<Long> ids,
+                            @Param("status") BookingStatus status);
+
+    List<Booking> findByBookerIdAndIdLessThan(Long bookerId, Long after, Pageable page);
+
+    List<Booking> findByBookerIdAndIdLessThanAndStatus(Long bookerId, Long after, BookingStatus status, Pageable page);
+
+    List<Booking> findByBookerIdAndIdLessThanAndStartBeforeAndEndAfter(Long bookerId, Long after,
+                                                                       LocalDateTime start, LocalDateTime end,
+                                                                       Pageable page);
+
+    List<Booking> findByBookerIdAndIdLessThanAndEndBefore(Long bookerId, Long after, LocalDateTime now, Pageable page);
+
+    List<Booking> findByBookerIdAndIdLessThanAndStartAfter(Long bookerId, Long after, LocalDateTime now, Pageable page);
+
     @Query("select b " +
             "from Booking b " +
             "JOIN b.item it " +
             "where it.sharerId = :ownerId " +
             "order by b.id desc")
-    Page<Booking> findAllByOwner(@Param("ownerId") Long ownerId, Pageable page);
+    List<Booking> findAllByOwner(@Param("ownerId") Long ownerId, Pageable page);
 
     @Query("select b " +
             "from Booking b " +
@@ -40,7 +124,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "and b.start < :start " +
             "and b.end > :end " +
             "order by b.id desc")
-    Page<Booking> findCurrentByOwner(@Param("ownerId") Long ownerId,
+    List<Booking> findCurrentByOwner(@Param("ownerId") Long ownerId,
                                      @Param("start") LocalDateTime before,
                                      @Param("end") LocalDateTime after, Pageable page);
 
@@ -50,7 +134,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "where it.sharerId = :ownerId " +
             "and b.end < :after " +
             "order by b.id desc")
-    Page<Booking> findPastByOwner(@Param("ownerId") Long ownerId,
+    List<Booking> findPastByOwner(@Param("ownerId") Long ownerId,
                                   @Param("after") LocalDateTime after, Pageable page);
 
     @Query("select b " +
@@ -59,7 +143,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "where it.sharerId = :ownerId " +
             "and b.start > :start " +
             "order by b.id desc")
-    Page<Booking> findFutureByOwner(@Param("ownerId") Long ownerId,
+    List<Booking> findFutureByOwner(@Param("ownerId") Long ownerId,
                                     @Param("start") LocalDateTime now, Pageable page);
 
     @Query("select b " +
@@ -68,9 +152,98 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "where it.sharerId = :ownerId " +
             "and b.status = :status " +
             "order by b.id desc")
-    Page<Booking> findByOwnerAndStatus(@Param("ownerId") Long ownerId,
+    List<Booking> findByOwnerAndStatus(@Param("ownerId") Long ownerId,
                                        @Param("status") BookingStatus status, Pageable page);
 
-    List<Booking> findByItemOrderByStartAsc(Item item);
+    @Query("select b " +
+            "from Booking b " +
+            "JOIN b.item it " +
+            "where it.sharerId = :ownerId " +
+            "and b.id < :after " +
+            "order by b.id desc")
+    List<Booking> findAllByOwnerAfter(@Param("ownerId") Long ownerId,
+                                      @Param("after") Long after, Pageable page);
+
+    @Query("select b " +
+            "from Booking b " +
+            "JOIN b.item it " +
+            "where it.sharerId = :ownerId " +
+            "and b.id < :after " +
+            "and b.start < :start " +
+            "and b.end > :end " +
+            "order by b.id desc")
+    List<Booking> findCurrentByOwnerAfter(@Param("ownerId") Long ownerId,
+                                          @Param("after") Long after,
+                                          @Param("start") LocalDateTime before,
+                                          @Param("end") LocalDateTime now, Pageable page);
+
+    @Query("select b " +
+            "from Booking b " +
+            "JOIN b.item it " +
+            "where it.sharerId = :ownerId " +
+            "and b.id < :after " +
+            "and b.end < :end " +
+            "order by b.id desc")
+    List<Booking> findPastByOwnerAfter(@Param("ownerId") Long ownerId,
+                                       @Param("after") Long after,
+                                       @Param("end") LocalDateTime now, Pageable page);
+
+    @Query("select b " +
+            "from Booking b " +
+            "JOIN b.item it " +
+            "where it.sharerId = :ownerId " +
+            "and b.id < :after " +
+            "and b.start > :start " +
+            "order by b.id desc")
+    List<Booking> findFutureByOwnerAfter(@Param("ownerId") Long ownerId,
+                                         @Param("after") Long after,
+                                         @Param("start") LocalDateTime now, Pageable page);
+
+    @Query("select b " +
+            "from Booking b " +
+            "JOIN b.item it " +
+            "where it.sharerId = :ownerId " +
+            "and b.id < :after " +
+            "and b.status = :status " +
+            "order by b.id desc")
+    List<Booking> findByOwnerAndStatusAfter(@Param("ownerId") Long ownerId,
+                                            @Param("after") Long after,
+                                            @Param("status") BookingStatus status, Pageable page);
+
+    Optional<Booking> findFirstByItemIdAndStatusNotAndStartBeforeOrderByStartDescIdAsc(Long itemId,
+                                                                                    BookingStatus status,
+                                                                                    LocalDateTime now);
+
+    Optional<Booking> findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAscIdAsc(Long itemId,
+                                                                                  BookingStatus status,
+                                                                                  LocalDateTime now);
+
+    @Query("select b " +
+            "from Booking b " +
+            "JOIN FETCH b.booker " +
+            "where b.item.id in :itemIds " +
+            "and b.status <> ru.practicum.shareit.booking.BookingStatus.REJECTED " +
+            "and b.start = (select max(l.start) " +
+            "from Booking l " +
+            "where l.item = b.item " +
+            "and l.start < :now " +
+            "and l.status <> ru.practicum.shareit.booking.BookingStatus.REJECTED) " +
+            "order by b.id")
+    List<Booking> findLastByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                    @Param("now") LocalDateTime now);
+
+    @Query("select b " +
+            "from Booking b " +
+            "JOIN FETCH b.booker " +
+            "where b.item.id in :itemIds " +
+            "and b.status <> ru.practicum.shareit.booking.BookingStatus.REJECTED " +
+            "and b.start = (select min(n.start) " +
+            "from Booking n " +
+            "where n.item = b.item " +
+            "and n.start > :now " +
+            "and n.status <> ru.practicum.shareit.booking.BookingStatus.REJECTED) " +
+            "order by b.id")
+    List<Booking> findNextByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                    @Param("now") LocalDateTime now);
 
 }
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+@UtilityClass
+public class JsonStreams {
+
+    public <T> ResponseEntity<StreamingResponseBody> jsonArray(HttpServletRequest request, HttpServletResponse response,
+                                                               ObjectMapper mapper, Consumer<Consumer<T>> source) {
+        return streamed(request, response, MediaType.APPLICATION_JSON, mapper, source, true);
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> ndjson(HttpServletRequest request, HttpServletResponse response,
+                                                            ObjectMapper mapper, Consumer<Consumer<T>> source) {
+        return streamed(request, response, MediaType.APPLICATION_NDJSON, mapper, source, false);
+    }
+
+    private <T> ResponseEntity<StreamingResponseBody> streamed(HttpServletRequest request, HttpServletResponse response,
+                                                               MediaType contentType, ObjectMapper mapper,
+                                                               Consumer<Consumer<T>> source, boolean array) {
+        // the ETag filter would otherwise buffer the whole body to hash it
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return ResponseEntity.ok().body(out -> {
+            JsonGenerator generator = mapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+            // nothing reaches the response before the first value, so a failure up to that point
+            // (e.g. an unknown user) is still rendered by the error handler
+            AtomicBoolean started = new AtomicBoolean();
+            source.accept(value -> {
+                try {
+                    if (started.compareAndSet(false, true)) {
+                        start(response, contentType, generator, array);
+                    }
+                    generator.writeObject(value);
+                    if (!array) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (started.compareAndSet(false, true)) {
+                start(response, contentType, generator, array);
+            }
+            if (array) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+        });
+    }
+
+    private void start(HttpServletResponse response, MediaType contentType, JsonGenerator generator,
+                       boolean array) throws IOException {
+        response.setContentType(contentType.toString());
+        if (array) {
+            generator.writeStartArray();
+        }
+    }
+}
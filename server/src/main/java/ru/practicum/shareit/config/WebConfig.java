@@ -1,15 +1,55 @@
 package ru.practicum.shareit.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import ru.practicum.shareit.booking.BookingStateConverter;
 
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final int streamingPoolSize;
+    private final Duration streamingTimeout;
+    private final ObjectProvider<ThreadFactory> virtualThreadFactory;
+
+    public WebConfig(@Value("${shareit.streaming.pool-size:16}") int streamingPoolSize,
+                     @Value("${shareit.streaming.timeout:1h}") Duration streamingTimeout,
+                     @Qualifier("virtualThreadFactory") ObjectProvider<ThreadFactory> virtualThreadFactory) {
+        this.streamingPoolSize = streamingPoolSize;
+        this.streamingTimeout = streamingTimeout;
+        this.virtualThreadFactory = virtualThreadFactory;
+    }
+
     @Override
     public void addFormatters(FormatterRegistry registry) {
         registry.addConverter(new BookingStateConverter());
     }
+
+    // streamed responses (GET /users, exports) hold an async thread and a connection for the whole transfer;
+    // requests over the pool size wait in the queue without a thread until the timeout
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingTaskExecutor());
+        configurer.setDefaultTimeout(streamingTimeout.toMillis());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor streamingTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(streamingPoolSize);
+        executor.setMaxPoolSize(streamingPoolSize);
+        executor.setThreadNamePrefix("streaming-");
+        // with virtual threads the pool size still caps concurrent streams, but a blocked stream frees its carrier
+        virtualThreadFactory.ifAvailable(executor::setThreadFactory);
+        return executor;
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.error;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -77,6 +78,12 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler (value = {OptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailure(final OptimisticLockingFailureException e) {
+        return new ErrorResponse("данные были изменены другим запросом, повторите попытку");
+    }
+
     @ExceptionHandler (value = {
             HttpMessageNotReadableException.class,
             NoHandlerFoundException.class,
@@ -1,12 +1,21 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.common.JsonStreams;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExportDto;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.common.Constants.userIdRequestHeaderName;
@@ -18,6 +27,7 @@ import static ru.practicum.shareit.common.Constants.userIdRequestHeaderName;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto addItem(@RequestBody ItemDto item,
@@ -27,6 +37,14 @@ public class ItemController {
         return itemService.addItem(sharerId, item);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> addItems(@RequestBody List<ItemDto> items,
+                                  @RequestHeader(userIdRequestHeaderName) Long sharerId,
+                                  HttpServletRequest request) {
+        log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
+        return itemService.addItems(sharerId, items);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestBody ItemDto item,
                               @RequestHeader(userIdRequestHeaderName) Long sharerId,
@@ -36,12 +54,23 @@ public class ItemController {
         return itemService.updateItem(sharerId, item, itemId);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestHeader(userIdRequestHeaderName) Long sharerId,
+                                                             HttpServletRequest request,
+                                                             HttpServletResponse response) {
+        log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
+        return JsonStreams.<ItemExportDto>ndjson(request, response, objectMapper,
+                action -> itemService.exportForSharer(sharerId, action));
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getItem(@RequestHeader(userIdRequestHeaderName) Long sharerId,
                            @PathVariable Long itemId,
                            HttpServletRequest request) {
 
         log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
+        // the body carries comment authors and the owner's bookings, so the ETag filter hashes it
+        // instead of a version tag that would need its own queries and miss some of those changes
         return itemService.getItemById(sharerId, itemId);
     }
 
@@ -56,11 +85,29 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDto> searchItem(@RequestParam String text,
+                                    @RequestParam(required = false)
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                    @RequestParam(required = false)
+                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
                                     @RequestParam(defaultValue = "0") int from,
                                     @RequestParam(defaultValue = "10") int size,
                                     HttpServletRequest request) {
         log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
-        return itemService.search(text, from, size);
+        if (start == null && end == null) {
+            return itemService.search(text, from, size);
+        }
+        return itemService.search(text, start, end, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                               HttpServletRequest request) {
+        log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
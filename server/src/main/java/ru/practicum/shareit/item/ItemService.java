@@ -1,21 +1,33 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExportDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
     ItemDto addItem(Long sharerId, ItemDto item);
 
+    List<ItemDto> addItems(Long sharerId, List<ItemDto> items);
+
     ItemDto updateItem(Long sharerId, ItemDto item, Long itemId);
 
     ItemDto getItemById(Long userId, Long itemId);
 
     List<ItemDto> getAllForSharer(Long sharerId, int from, int size);
 
+    void exportForSharer(Long sharerId, Consumer<ItemExportDto> action);
+
     List<ItemDto> search(String text, int from, int size);
 
+    List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     CommentDto addComment(Long userId, Long itemId, CommentDto comment);
 }
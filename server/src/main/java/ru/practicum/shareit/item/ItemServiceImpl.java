@@ -15,24 +15,34 @@ import ru.practicum.shareit.error.exception.EntityNotFoundException;
 import ru.practicum.shareit.error.exception.InvalidEntityException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoMapper;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoMapper;
+import ru.practicum.shareit.item.dto.ItemExportDto;
 import ru.practicum.shareit.item.exception.InvalidCommentAuthorException;
 import ru.practicum.shareit.item.exception.ItemDtoMappingException;
 import ru.practicum.shareit.item.exception.OwnerMismatchException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.storage.UserIdCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -40,10 +50,14 @@ import java.util.stream.Collectors;
 @Transactional
 public class ItemServiceImpl implements ItemService {
 
+    private static final int DEFAULT_AVAILABILITY_DAYS = 30;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserIdCache userIdCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
 
     @Override
     public ItemDto addItem(Long sharerId, ItemDto itemDto) {
@@ -53,15 +67,38 @@ public class ItemServiceImpl implements ItemService {
         } catch (ItemDtoMappingException e) {
             throw new InvalidEntityException(e.getMessage());
         }
-        if (!userRepository.existsById(sharerId)) {
+        if (!userIdCache.exists(sharerId)) {
             throw new UserNotFoundException(sharerId);
         }
-        return ItemDtoMapper.toDto(itemRepository.save(item), null, null, null);
+        item = itemRepository.save(item);
+        itemSearchEngine.index(item);
+        return ItemDtoMapper.toDto(item, null, null, null);
+    }
+
+    @Override
+    public List<ItemDto> addItems(Long sharerId, List<ItemDto> itemDtos) {
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        try {
+            for (ItemDto itemDto : itemDtos) {
+                items.add(ItemDtoMapper.fromDto(sharerId, itemDto));
+            }
+        } catch (ItemDtoMappingException e) {
+            throw new InvalidEntityException(e.getMessage());
+        }
+        if (!userIdCache.exists(sharerId)) {
+            throw new UserNotFoundException(sharerId);
+        }
+        // ids come from the pooled sequence, so the inserts are deferred and flushed as jdbc batches
+        items = itemRepository.saveAll(items);
+        items.forEach(itemSearchEngine::index);
+        return items.stream()
+                .map(i -> ItemDtoMapper.toDto(i, null, null, null))
+                .collect(Collectors.toUnmodifiableList());
     }
 
     @Override
     public ItemDto updateItem(Long sharerId, ItemDto item, Long itemId) {
-        if (!userRepository.existsById(sharerId)) {
+        if (!userIdCache.exists(sharerId)) {
             throw new UserNotFoundException(sharerId);
         }
         var original = itemRepository.findById(itemId)
@@ -72,8 +109,9 @@ public class ItemServiceImpl implements ItemService {
                     String.format("пользователь [%d] не является владельцем предмета [%d]", sharerId, itemId));
         }
 
-        return ItemDtoMapper.toDto(itemRepository.save(ItemDtoMapper.updateItem(original, item)),
-                null, null, null);
+        var updated = itemRepository.save(ItemDtoMapper.updateItem(original, item));
+        itemSearchEngine.index(updated);
+        return ItemDtoMapper.toDto(updated, null, null, null);
     }
 
     @Override
@@ -90,50 +128,56 @@ public class ItemServiceImpl implements ItemService {
 
         if (!userId.equals(item.getSharerId())) return ItemDtoMapper.toDto(item, comments, null, null);
 
-        var lastAndNextBookings = findLastAndNextBooking(item);
+        var now = LocalDateTime.now();
+        BookingDto last = bookingRepository
+                .findFirstByItemIdAndStatusNotAndStartBeforeOrderByStartDescIdAsc(itemId, BookingStatus.REJECTED, now)
+                .map(b -> BookingDtoMapper.toDto(b, null, null))
+                .orElse(null);
+        BookingDto next = bookingRepository
+                .findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAscIdAsc(itemId, BookingStatus.REJECTED, now)
+                .map(b -> BookingDtoMapper.toDto(b, null, null))
+                .orElse(null);
 
-        return ItemDtoMapper.toDto(item, comments, lastAndNextBookings[0], lastAndNextBookings[1]);
+        return ItemDtoMapper.toDto(item, comments, last, next);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getAllForSharer(Long sharerId, int from, int size) {
-        if (!userRepository.existsById(sharerId)) {
+        if (!userIdCache.exists(sharerId)) {
             throw new UserNotFoundException(sharerId);
         }
-        List<ItemDto> result = new ArrayList<>();
         PageRequest page = new NormalizedPageRequest(from, size);
-        for (Item item: itemRepository.findAllBySharerId(sharerId, page)) {
-            var bookings = findLastAndNextBooking(item);
-            List<CommentDto> comments = commentRepository.findByItemId(item.getId())
-                    .stream()
-                    .map(c -> CommentDtoMapper.toDto(c, c.getAuthor().getName()))
-                    .collect(Collectors.toUnmodifiableList());
-            result.add(ItemDtoMapper.toDto(item, comments, bookings[0], bookings[1]));
-        }
-        result.sort(Comparator.comparing(ItemDto::getId));
-        return result;
-    }
-
-    @Transactional(readOnly = true)
-    private BookingDto[] findLastAndNextBooking(Item item) {
+        List<Item> items = itemRepository.findAllBySharerId(sharerId, page);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        List<Booking> bookings = bookingRepository.findByItemOrderByStartAsc(item);
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toUnmodifiableList());
         var now = LocalDateTime.now();
+        Map<Long, BookingDto> lastBookings = groupByItemId(bookingRepository.findLastByItemIds(itemIds, now));
+        Map<Long, BookingDto> nextBookings = groupByItemId(bookingRepository.findNextByItemIds(itemIds, now));
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(Comment::getItemId, Collectors.mapping(
+                        c -> CommentDtoMapper.toDto(c, c.getAuthor().getName()),
+                        Collectors.toUnmodifiableList())));
 
-        BookingDto last = bookings.stream()
-                .filter(b -> b.getStart().isBefore(now) && !b.getStatus().equals(BookingStatus.REJECTED))
-                .max(Comparator.comparing(Booking::getStart))
-                .map(b -> BookingDtoMapper.toDto(b, null, null))
-                .orElse(null);
-
-        BookingDto next = bookings.stream()
-                .filter(b -> b.getStart().isAfter(now) && !b.getStatus().equals(BookingStatus.REJECTED))
-                .min(Comparator.comparing(Booking::getStart))
-                .map(b -> BookingDtoMapper.toDto(b, null, null))
-                .orElse(null);
+        return items.stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .map(item -> ItemDtoMapper.toDto(item,
+                        comments.getOrDefault(item.getId(), Collections.emptyList()),
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId())))
+                .collect(Collectors.toUnmodifiableList());
+    }
 
-        return new BookingDto[] {last, next};
+    private static Map<Long, BookingDto> groupByItemId(List<Booking> bookings) {
+        Map<Long, BookingDto> result = new HashMap<>();
+        for (Booking booking : bookings) {
+            result.putIfAbsent(booking.getItem().getId(), BookingDtoMapper.toDto(booking, null, null));
+        }
+        return result;
     }
 
     @Override
@@ -143,13 +187,79 @@ public class ItemServiceImpl implements ItemService {
             return Collections.emptyList();
         }
         PageRequest page = new NormalizedPageRequest(from, size);
-        return itemRepository
-                .findByAvailableTrueAndDescriptionContainingIgnoreCase(searchText.trim().toLowerCase(), page)
+        return itemSearchEngine.search(searchText.trim(), page)
                 .stream()
                 .map(i -> ItemDtoMapper.toDto(i, null, null, null))
                 .collect(Collectors.toUnmodifiableList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> search(String searchText, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new InvalidEntityException("период поиска должен содержать начало и конец, конец позже начала");
+        }
+        if (searchText == null || searchText.isBlank()) {
+            return Collections.emptyList();
+        }
+        PageRequest page = new NormalizedPageRequest(from, size);
+        return itemSearchEngine.search(searchText.trim(), start, end, page)
+                .stream()
+                .map(i -> ItemDtoMapper.toDto(i, null, null, null))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportForSharer(Long sharerId, Consumer<ItemExportDto> action) {
+        if (!userIdCache.exists(sharerId)) {
+            throw new UserNotFoundException(sharerId);
+        }
+        try (Stream<ItemExportDto> items = itemRepository.streamBySharerId(sharerId)) {
+            items.forEach(action);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new EntityNotFoundException(String.format("предмет с id [%d] не найден", itemId));
+        }
+        var start = from != null ? from : LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        var end = to != null ? to : start.plusDays(DEFAULT_AVAILABILITY_DAYS);
+        if (!end.isAfter(start)) {
+            throw new InvalidEntityException("конец периода должен быть позже начала");
+        }
+
+        List<IntervalDto> busy = new ArrayList<>();
+        for (IntervalDto period : bookingRepository.findApprovedPeriods(itemId, start, end)) {
+            var periodStart = period.getStart().isBefore(start) ? start : period.getStart();
+            var periodEnd = period.getEnd().isAfter(end) ? end : period.getEnd();
+            var last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+            if (last != null && !periodStart.isAfter(last.getEnd())) {
+                if (periodEnd.isAfter(last.getEnd())) {
+                    last.setEnd(periodEnd);
+                }
+            } else {
+                busy.add(new IntervalDto(periodStart, periodEnd));
+            }
+        }
+
+        List<IntervalDto> free = new ArrayList<>();
+        var cursor = start;
+        for (IntervalDto period : busy) {
+            if (period.getStart().isAfter(cursor)) {
+                free.add(new IntervalDto(cursor, period.getStart()));
+            }
+            cursor = period.getEnd();
+        }
+        if (end.isAfter(cursor)) {
+            free.add(new IntervalDto(cursor, end));
+        }
+        return new ItemAvailabilityDto(itemId, start, end, busy, free);
+    }
+
     @Override
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
         var user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
@@ -167,6 +277,7 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(user);
         comment.setItemId(itemId);
         comment.setCommentText(commentDto.getText());
-        return CommentDtoMapper.toDto(commentRepository.save(comment), user.getName());
+        // flush so that the creation timestamp is filled in for the response
+        return CommentDtoMapper.toDto(commentRepository.saveAndFlush(comment), user.getName());
     }
 }
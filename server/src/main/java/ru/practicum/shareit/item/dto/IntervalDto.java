@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+import static ru.practicum.shareit.common.Constants.defaultJsonDateTimePattern;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IntervalDto {
+    @JsonFormat(pattern = defaultJsonDateTimePattern)
+    private LocalDateTime start;
+    @JsonFormat(pattern = defaultJsonDateTimePattern)
+    private LocalDateTime end;
+}
@@ -30,7 +30,8 @@ public class ItemDtoMapper {
                 itemDto.getName(),
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
-                itemDto.getRequestId()
+                itemDto.getRequestId(),
+                0L
         );
     }
 
@@ -13,7 +13,8 @@ import javax.persistence.*;
 @NoArgsConstructor
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     @Column(name = "item_id")
     private Long id;
 
@@ -29,4 +30,8 @@ public class Item {
 
     @Column(name = "request_id")
     private Long requestId;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// PostgreSQL only: relies on the GIN indexes from V3__search_indexes.sql
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return itemRepository.fullTextSearch(text, SearchPatterns.escapeLike(text), page);
+    }
+
+    @Override
+    public List<Item> search(String text, LocalDateTime start, LocalDateTime end, Pageable page) {
+        return itemRepository.fullTextSearchNotBooked(text, SearchPatterns.escapeLike(text), start, end, page);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Value;
+
+@Value
+public class IndexedItem {
+    Long id;
+    String name;
+    String description;
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index")
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+
+    private static final int BOOKING_FILTER_CHUNK = 1000;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final Object lock = new Object();
+
+    // null until the first build is swapped in; searches go to SQL meanwhile
+    private volatile InvertedItemIndex index;
+    // updates committed while a build streams the table, replayed onto the new index before the swap
+    private Map<Long, String> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (lock) {
+            pending = new LinkedHashMap<>();
+        }
+        InvertedItemIndex built = new InvertedItemIndex();
+        try (Stream<IndexedItem> items = itemRepository.streamAvailableForIndex()) {
+            items.forEach(i -> built.put(i.getId(), i.getName() + " " + i.getDescription()));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pending = null;
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            pending.forEach((id, text) -> apply(built, id, text));
+            pending = null;
+            index = built;
+        }
+        log.info("Item search index built, {} items", built.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        InvertedItemIndex current = index;
+        if (current == null) {
+            return itemRepository.searchAvailable(SearchPatterns.escapeLike(text.toLowerCase()), page);
+        }
+        long[] ids = current.search(text);
+        int from = (int) Math.min(page.getOffset(), ids.length);
+        int to = Math.min(from + page.getPageSize(), ids.length);
+        if (from == to) {
+            return Collections.emptyList();
+        }
+        return load(Arrays.stream(ids, from, to).boxed().collect(Collectors.toUnmodifiableList()));
+    }
+
+    @Override
+    public List<Item> search(String text, LocalDateTime start, LocalDateTime end, Pageable page) {
+        InvertedItemIndex current = index;
+        if (current == null) {
+            return itemRepository.searchAvailableNotBooked(SearchPatterns.escapeLike(text.toLowerCase()),
+                    start, end, page);
+        }
+        long[] ids = current.search(text);
+        long needed = page.getOffset() + page.getPageSize();
+        List<Long> free = new ArrayList<>();
+        for (int from = 0; from < ids.length && free.size() < needed; from += BOOKING_FILTER_CHUNK) {
+            List<Long> chunk = Arrays.stream(ids, from, Math.min(from + BOOKING_FILTER_CHUNK, ids.length))
+                    .boxed()
+                    .collect(Collectors.toUnmodifiableList());
+            Set<Long> booked = new HashSet<>(bookingRepository.findBookedItemIds(chunk, start, end));
+            chunk.stream().filter(id -> !booked.contains(id)).forEach(free::add);
+        }
+        int from = (int) Math.min(page.getOffset(), free.size());
+        int to = (int) Math.min(needed, free.size());
+        if (from == to) {
+            return Collections.emptyList();
+        }
+        return load(free.subList(from, to));
+    }
+
+    private List<Item> load(List<Long> pageIds) {
+        Map<Long, Item> items = itemRepository.findAllById(pageIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return pageIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .filter(Item::isAvailable)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public void index(Item item) {
+        long id = item.getId();
+        String text = item.isAvailable() ? item.getName() + " " + item.getDescription() : null;
+        Runnable update = () -> {
+            synchronized (lock) {
+                if (index != null) {
+                    apply(index, id, text);
+                }
+                if (pending != null) {
+                    pending.put(id, text);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private static void apply(InvertedItemIndex target, long id, String text) {
+        if (text == null) {
+            target.remove(id);
+        } else {
+            target.put(id, text);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, Pageable page);
+
+    List<Item> search(String text, LocalDateTime start, LocalDateTime end, Pageable page);
+
+    default void index(Item item) {
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+class SearchPatterns {
+
+    // '\' is declared as the escape character in every LIKE/ILIKE search query
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
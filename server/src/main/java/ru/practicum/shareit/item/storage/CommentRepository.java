@@ -1,10 +1,16 @@
 package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemId(Long itemId);
+
+    @Query("select c from Comment c JOIN FETCH c.author where c.itemId in :itemIds")
+    List<Comment> findByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
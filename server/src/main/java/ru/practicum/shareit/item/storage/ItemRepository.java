@@ -1,16 +1,112 @@
 package ru.practicum.shareit.item.storage;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemExportDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findAllBySharerId(Long sharerId, Pageable page);
+    List<Item> findAllBySharerId(Long sharerId, Pageable page);
+
+    @Query("select i " +
+            "from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like concat('%', :text, '%') escape '\\' " +
+            "or lower(i.description) like concat('%', :text, '%') escape '\\') " +
+            "order by case when lower(i.name) like concat('%', :text, '%') escape '\\' then 0 else 1 end, i.id")
+    List<Item> searchAvailable(@Param("text") String text, Pageable page);
+
+    @Query("select i " +
+            "from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like concat('%', :text, '%') escape '\\' " +
+            "or lower(i.description) like concat('%', :text, '%') escape '\\') " +
+            "and not exists (select b.id " +
+            "from Booking b " +
+            "where b.item.id = i.id " +
+            "and b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "and b.start < :end " +
+            "and b.end > :start) " +
+            "order by case when lower(i.name) like concat('%', :text, '%') escape '\\' then 0 else 1 end, i.id")
+    List<Item> searchAvailableNotBooked(@Param("text") String text,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end,
+                                        Pageable page);
+
+    @Query(value = "SELECT * " +
+            "FROM items i " +
+            "WHERE i.available " +
+            "AND (to_tsvector('simple', i.name || ' ' || i.description) @@ plainto_tsquery('simple', :text) " +
+            "OR i.name ILIKE '%' || :pattern || '%' ESCAPE '\\' " +
+            "OR i.description ILIKE '%' || :pattern || '%' ESCAPE '\\') " +
+            "ORDER BY ts_rank(to_tsvector('simple', i.name || ' ' || i.description), " +
+            "plainto_tsquery('simple', :text)) DESC, i.item_id",
+            nativeQuery = true)
+    List<Item> fullTextSearch(@Param("text") String text, @Param("pattern") String pattern, Pageable page);
+
+    @Query(value = "SELECT * " +
+            "FROM items i " +
+            "WHERE i.available " +
+            "AND (to_tsvector('simple', i.name || ' ' || i.description) @@ plainto_tsquery('simple', :text) " +
+            "OR i.name ILIKE '%' || :pattern || '%' ESCAPE '\\' " +
+            "OR i.description ILIKE '%' || :pattern || '%' ESCAPE '\\') " +
+            "AND NOT EXISTS (SELECT 1 " +
+            "FROM bookings b " +
+            "WHERE b.item_id = i.item_id " +
+            "AND b.status = 'APPROVED' " +
+            "AND b.start_date < :end " +
+            "AND b.end_date > :start) " +
+            "ORDER BY ts_rank(to_tsvector('simple', i.name || ' ' || i.description), " +
+            "plainto_tsquery('simple', :text)) DESC, i.item_id",
+            nativeQuery = true)
+    List<Item> fullTextSearchNotBooked(@Param("text") String text,
+                                       @Param("pattern") String pattern,
+                                       @Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end,
+                                       Pageable page);
 
-    Page<Item> findByAvailableTrueAndDescriptionContainingIgnoreCase(String searchText, Pageable page);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new ru.practicum.shareit.item.search.IndexedItem(i.id, i.name, i.description) " +
+            "from Item i " +
+            "where i.available = true")
+    Stream<IndexedItem> streamAvailableForIndex();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new ru.practicum.shareit.item.dto.ItemExportDto(i.id, i.name, i.description, i.available, i.requestId) " +
+            "from Item i " +
+            "where i.sharerId = :sharerId " +
+            "order by i.id")
+    Stream<ItemExportDto> streamBySharerId(@Param("sharerId") Long sharerId);
 
     List<Item> findByRequestId(Long requestId);
+
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i " +
+            "from Item i " +
+            "where i.sharerId = :sharerId " +
+            "and i.id in (select b.item.id from Booking b where b.id in :bookingIds) " +
+            "order by i.id")
+    List<Item> findAllByBookingIdsForUpdate(@Param("sharerId") Long sharerId,
+                                            @Param("bookingIds") Collection<Long> bookingIds);
 }
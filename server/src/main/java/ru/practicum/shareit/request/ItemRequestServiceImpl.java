@@ -15,9 +15,10 @@ import ru.practicum.shareit.request.dto.ItemRequestDtoMapper;
 import ru.practicum.shareit.request.dto.ItemRequestReplyDto;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserIdCache;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,25 +27,26 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final UserIdCache userIdCache;
     private final ItemRepository itemRepository;
 
     @Override
     @Transactional
     public ItemRequestDto addRequest(Long userId, ItemRequestDto requestDto) {
-        if (!userRepository.existsById(userId)) {
+        if (!userIdCache.exists(userId)) {
             throw new UserNotFoundException(userId);
         }
         ItemRequest request = new ItemRequest();
         request.setRequesterId(userId);
         request.setDescription(requestDto.getDescription());
-        return ItemRequestDtoMapper.toDto(itemRequestRepository.save(request));
+        // flush so that the creation timestamp is filled in for the response
+        return ItemRequestDtoMapper.toDto(itemRequestRepository.saveAndFlush(request));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getUserRequests(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userIdCache.exists(userId)) {
             throw new UserNotFoundException(userId);
         }
 
@@ -85,13 +87,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllRequests(int from, int size, Long requesterId) {
         PageRequest page = new NormalizedPageRequest(from, size)
-                .withSort(Sort.by(Sort.Direction.DESC, "created"));
-        return itemRequestRepository.getAllWithResponses(page)
+                .withSort(Sort.by(Sort.Direction.DESC, "created", "id"));
+        List<ItemRequest> requests = itemRequestRepository.findByRequesterIdNot(requesterId, page);
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<Item>> replies = itemRepository.findByRequestIdIn(requests.stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList()))
                 .stream()
-                .filter(i -> !i.getRequesterId().equals(requesterId))
+                .collect(Collectors.groupingBy(Item::getRequestId));
+
+        return requests.stream()
                 .map(r -> {
                     var dto = ItemRequestDtoMapper.toDto(r);
-                    dto.setItems(makeRepliesFromItems(r.getResponses(), r.getId()));
+                    dto.setItems(makeRepliesFromItems(replies.getOrDefault(r.getId(), List.of()), r.getId()));
                     return dto;
                 })
                 .collect(Collectors.toUnmodifiableList());
@@ -100,7 +111,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional(readOnly = true)
     public ItemRequestDto getRequestById(Long userId, Long id) {
-        if (!userRepository.existsById(userId)) {
+        if (!userIdCache.exists(userId)) {
             throw new UserNotFoundException(userId);
         }
 
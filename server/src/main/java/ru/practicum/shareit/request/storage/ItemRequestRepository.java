@@ -14,8 +14,7 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     @Query("SELECT r FROM ItemRequest r LEFT JOIN FETCH r.responses WHERE r.requesterId = :userId ORDER BY r.created DESC")
     List<ItemRequest> getByRequesterIdWithResponses(@Param("userId") Long userId);
 
-    @Query("SELECT r FROM ItemRequest r LEFT JOIN FETCH r.responses")
-    List<ItemRequest> getAllWithResponses(Pageable page);
+    List<ItemRequest> findByRequesterIdNot(Long requesterId, Pageable page);
 
     @Query("SELECT r FROM ItemRequest r LEFT JOIN FETCH r.responses WHERE r.id = :id")
     Optional<ItemRequest> getByIdWithResponses(@Param("id") Long id);
@@ -14,7 +14,8 @@ import javax.validation.constraints.Email;
 @AllArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "user_id")
     private Long id;
 
@@ -24,4 +25,8 @@ public class User {
     @Email
     @Column
     private String email;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
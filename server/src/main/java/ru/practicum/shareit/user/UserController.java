@@ -1,11 +1,17 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.common.JsonStreams;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -15,16 +21,29 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public List<UserDto> getAllUsers(HttpServletRequest request) {
+    public List<UserDto> getUsers(@RequestParam(defaultValue = "0") int from,
+                                  @RequestParam(defaultValue = "10") int size,
+                                  HttpServletRequest request) {
         log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
-        return userService.getAllUsers();
+        return userService.getAllUsers(from, size);
+    }
+
+    // without paging parameters the whole table is streamed
+    @GetMapping(params = {"!from", "!size"})
+    public ResponseEntity<StreamingResponseBody> getAllUsers(HttpServletRequest request, HttpServletResponse response) {
+        log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
+        return JsonStreams.jsonArray(request, response, objectMapper, userService::streamAllUsers);
     }
 
     @GetMapping("/{id}")
-    public UserDto getUser(@PathVariable Long id, HttpServletRequest request) {
+    public UserDto getUser(@PathVariable Long id, HttpServletRequest request, WebRequest webRequest) {
         log.debug("On URL [{}] used method [{}]", request.getRequestURL(), request.getMethod());
+        if (webRequest.checkNotModified(userService.getUserETag(id))) {
+            return null;
+        }
         return userService.getUser(id);
     }
 
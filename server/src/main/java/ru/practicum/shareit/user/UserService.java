@@ -3,12 +3,17 @@ package ru.practicum.shareit.user;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
-    List<UserDto> getAllUsers();
+    List<UserDto> getAllUsers(int from, int size);
+
+    void streamAllUsers(Consumer<UserDto> action);
 
     UserDto getUser(Long id);
 
+    String getUserETag(Long id);
+
     UserDto addUser(UserDto userDto);
 
     UserDto updateUser(Long id, UserDto userDto);
@@ -1,16 +1,22 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.NormalizedPageRequest;
 import ru.practicum.shareit.error.exception.DataConflictException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoMapper;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.storage.UserIdCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -18,11 +24,25 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserIdCache userIdCache;
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream().map(UserDtoMapper::toDto).collect(Collectors.toUnmodifiableList());
+    public List<UserDto> getAllUsers(int from, int size) {
+        PageRequest page = new NormalizedPageRequest(from, size);
+        return userRepository.findAllBy(page.withSort(Sort.by("id")))
+                .stream()
+                .map(UserDtoMapper::toDto)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserDto> action) {
+        // dto projection keeps the persistence context empty, so memory does not grow with the table
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            users.forEach(action);
+        }
     }
 
     @Override
@@ -32,10 +52,19 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new UserNotFoundException(id)));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getUserETag(Long id) {
+        var user = userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+        return String.format("user-%d-%d", id, user.getVersion());
+    }
+
     @Override
     public UserDto addUser(UserDto userDto) {
         try {
-            return UserDtoMapper.toDto(userRepository.save(UserDtoMapper.fromDto(userDto)));
+            // flush so that a duplicate email fails here rather than at commit
+            return UserDtoMapper.toDto(userRepository.saveAndFlush(UserDtoMapper.fromDto(userDto)));
         } catch (Exception e) {
             throw new DataConflictException("email уже существует");
         }
@@ -66,5 +95,6 @@ public class UserServiceImpl implements UserService {
             throw new UserNotFoundException(id);
         }
         userRepository.deleteById(id);
+        userIdCache.evict(id);
     }
 }
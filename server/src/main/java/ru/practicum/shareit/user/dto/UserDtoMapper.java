@@ -15,6 +15,7 @@ public class UserDtoMapper {
         return new User(
                 userDto.getId(),
                 userDto.getName(),
-                userDto.getEmail());
+                userDto.getEmail(),
+                0L);
     }
 }
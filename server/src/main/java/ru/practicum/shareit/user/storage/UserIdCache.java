@@ -0,0 +1,50 @@
+package ru.practicum.shareit.user.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class UserIdCache {
+
+    private final UserRepository userRepository;
+    private final Map<Long, Boolean> knownIds;
+
+    public UserIdCache(UserRepository userRepository, @Value("${shareit.user-cache.size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.knownIds = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public boolean exists(Long userId) {
+        if (knownIds.get(userId) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            knownIds.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public void evict(Long userId) {
+        knownIds.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    knownIds.remove(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- H2 gives a foreign key its own index unless one on exactly its columns already exists.
+-- PostgreSQL creates none, so these keys are re-added to sit on the single column V9 indexes.
+ALTER TABLE items DROP CONSTRAINT fk_item_1;
+ALTER TABLE items ADD CONSTRAINT fk_item_1 FOREIGN KEY (request_id) REFERENCES requests(request_id) ON DELETE CASCADE ON UPDATE RESTRICT;
+
+ALTER TABLE comments DROP CONSTRAINT fk_comments;
+ALTER TABLE comments ADD CONSTRAINT fk_comments FOREIGN KEY (item_id) REFERENCES items(item_id) ON DELETE CASCADE ON UPDATE RESTRICT;
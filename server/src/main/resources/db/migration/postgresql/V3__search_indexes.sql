@@ -0,0 +1,6 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_search ON items
+  USING GIN (to_tsvector('simple', name || ' ' || description)) WHERE available;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_name_trgm ON items USING GIN (name gin_trgm_ops) WHERE available;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_description_trgm ON items USING GIN (description gin_trgm_ops) WHERE available;
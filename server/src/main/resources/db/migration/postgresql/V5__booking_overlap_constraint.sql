@@ -0,0 +1,31 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Earlier versions did not stop two approved bookings of one item from overlapping, and the
+-- constraint below cannot be added while such pairs exist. The migration fails listing them;
+-- reject one booking of each pair, for example
+--   UPDATE bookings SET status = 'REJECTED', version = version + 1 WHERE booking_id = <id>;
+-- and rerun it.
+DO $$
+DECLARE
+    overlaps TEXT;
+BEGIN
+    SELECT string_agg(format('item %s: bookings %s and %s', item_id, first_id, second_id), '; ')
+    INTO overlaps
+    FROM (SELECT a.item_id, a.booking_id AS first_id, b.booking_id AS second_id
+          FROM bookings a
+          JOIN bookings b ON b.item_id = a.item_id
+              AND b.booking_id > a.booking_id
+              AND b.start_date < a.end_date
+              AND b.end_date > a.start_date
+          WHERE a.status = 'APPROVED'
+            AND b.status = 'APPROVED'
+          ORDER BY a.item_id, a.booking_id, b.booking_id
+          LIMIT 100) pairs;
+    IF overlaps IS NOT NULL THEN
+        RAISE EXCEPTION 'overlapping approved bookings must be resolved before migrating (first 100 pairs): %', overlaps;
+    END IF;
+END $$;
+
+ALTER TABLE bookings ADD CONSTRAINT excl_bookings_approved_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status = 'APPROVED');
@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_period ON bookings (item_id, start_date, end_date);
+DROP INDEX CONCURRENTLY IF EXISTS idx_bookings_item_start;
@@ -0,0 +1,6 @@
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('items_seq', (SELECT COALESCE(MAX(item_id), 0) + 1 FROM items), false);
+
+ALTER TABLE items ALTER COLUMN item_id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN item_id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.item_id;
@@ -0,0 +1,9 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_id ON bookings (booker_id, booking_id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_status ON bookings (booker_id, status);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_sharer_id ON items (sharer_id, item_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created DESC);
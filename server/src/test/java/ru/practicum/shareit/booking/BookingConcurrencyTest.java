@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.error.exception.DataConflictException;
+import ru.practicum.shareit.error.exception.InvalidEntityException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+// H2 has no exclusion constraint, so this covers the item row lock used outside PostgreSQL
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.booking.lock-items=true"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Slf4j
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setup() {
+        owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("concurrency-owner@email.com");
+        owner = userRepository.save(owner);
+
+        booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("concurrency-booker@email.com");
+        booker = userRepository.save(booker);
+
+        item = new Item();
+        item.setName("Item");
+        item.setDescription("Item description");
+        item.setAvailable(true);
+        item.setSharerId(owner.getId());
+        item = itemRepository.save(item);
+    }
+
+    @AfterEach
+    void cleanup() {
+        bookingRepository.deleteAll(bookingRepository.findByBookerIdAndItemId(booker.getId(), item.getId()));
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void concurrentApprovalsHaveSingleWinner() throws Exception {
+        var start = LocalDateTime.now().plusDays(1);
+        Long bookingId = saveWaiting(start, start.plusDays(1));
+
+        int approved = approveConcurrently(Collections.nCopies(THREADS, bookingId));
+
+        assertThat(approved, equalTo(1));
+        Booking stored = bookingRepository.findById(bookingId).orElseThrow();
+        assertThat(stored.getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(stored.getVersion(), equalTo(1L));
+    }
+
+    @Test
+    void concurrentApprovalsNeverOverlap() throws Exception {
+        var base = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            // pairwise overlapping intervals
+            bookingIds.add(saveWaiting(base.plusMinutes(i), base.plusDays(1).plusMinutes(i)));
+            // disjoint intervals
+            bookingIds.add(saveWaiting(base.plusDays(10 + i), base.plusDays(10 + i).plusHours(12)));
+        }
+
+        long started = System.nanoTime();
+        int approved = approveConcurrently(bookingIds);
+        long elapsed = System.nanoTime() - started;
+        log.info("{} approvals from {} threads in {} ms, {} approvals/s", bookingIds.size(), THREADS,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), bookingIds.size() * 1_000_000_000L / elapsed);
+
+        assertThat(approved, equalTo(THREADS + 1));
+        List<Booking> stored = bookingRepository.findByBookerIdAndItemId(booker.getId(), item.getId());
+        stored.removeIf(b -> b.getStatus() != BookingStatus.APPROVED);
+        stored.sort(Comparator.comparing(Booking::getStart));
+        for (int i = 1; i < stored.size(); i++) {
+            assertThat(stored.get(i - 1).getEnd(), lessThanOrEqualTo(stored.get(i).getStart()));
+        }
+    }
+
+    private Long saveWaiting(LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.WAITING);
+        return bookingRepository.save(booking).getId();
+    }
+
+    private int approveConcurrently(List<Long> bookingIds) throws Exception {
+        AtomicInteger approved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.approveBooking(owner.getId(), bookingId, true);
+                    approved.incrementAndGet();
+                } catch (DataConflictException | InvalidEntityException e) {
+                    log.debug("approval of booking [{}] rejected: {}", bookingId, e.getMessage());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        return approved.get();
+    }
+}
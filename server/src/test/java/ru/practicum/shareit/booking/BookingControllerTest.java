@@ -5,20 +5,33 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -77,6 +90,45 @@ class BookingControllerTest {
 
     }
 
+    @Test
+    void approveBookings() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        when(bookingService.approveBookings(anyLong(), any()))
+                .thenReturn(List.of(
+                        new BookingDecisionResultDto(1L, BookingStatus.APPROVED, null),
+                        new BookingDecisionResultDto(2L, null, "бронирование с id [2] не найдено")));
+
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(decisions))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].bookingId", is(1L), Long.class))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].bookingId", is(2L), Long.class))
+                .andExpect(jsonPath("$[1].error", is("бронирование с id [2] не найдено")));
+
+        verify(bookingService).approveBookings(1L, decisions);
+    }
+
+    @Test
+    void getBookingNotModified() throws Exception {
+        when(bookingService.getBookingETag(anyLong(), anyLong()))
+                .thenReturn("booking-1-1-0-0");
+
+        mvc.perform(get("/bookings/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"booking-1-1-0-0\"")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(bookingService, never()).getBooking(anyLong(), anyLong());
+    }
+
     @Test
     void getBooking() throws Exception {
         when(bookingService.getBooking(anyLong(), anyLong()))
@@ -117,4 +169,55 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].itemId", is(bookingDto.getItemId()), Long.class))
                 .andExpect(jsonPath("$[0].bookerId", is(bookingDto.getBookerId()), Long.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportOwnerBookings() throws Exception {
+        var start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        doAnswer(invocation -> {
+            Consumer<BookingExportDto> action = invocation.getArgument(1);
+            action.accept(new BookingExportDto(1L, 2L, "Item", 3L, start, start.plusDays(1), BookingStatus.APPROVED));
+            action.accept(new BookingExportDto(4L, 2L, "Item", 3L, start, start.plusDays(1), BookingStatus.WAITING));
+            return null;
+        }).when(bookingService).exportOwnerBookings(anyLong(), any());
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"itemId\":2,\"itemName\":\"Item\",\"bookerId\":3," +
+                                "\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\",\"status\":\"APPROVED\"}\n" +
+                                "{\"id\":4,\"itemId\":2,\"itemName\":\"Item\",\"bookerId\":3," +
+                                "\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\",\"status\":\"WAITING\"}\n"));
+        verify(bookingService).exportOwnerBookings(eq(1L), any());
+    }
+
+    @Test
+    void exportOwnerBookingsUnknownUser() throws Exception {
+        doThrow(new UserNotFoundException(100L)).when(bookingService).exportOwnerBookings(anyLong(), any());
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 100L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getOwnerBookingsAfter() throws Exception {
+        when(bookingService.getOwnerBookingsAfter(anyLong(), any(), anyLong(), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(get("/bookings/owner?after=10&size=5")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+}
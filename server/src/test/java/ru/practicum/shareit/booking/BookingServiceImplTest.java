@@ -6,7 +6,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.error.exception.DataConflictException;
 import ru.practicum.shareit.error.exception.EntityNotFoundException;
 import ru.practicum.shareit.error.exception.InvalidEntityException;
 import ru.practicum.shareit.item.exception.ItemUnavailableException;
@@ -17,6 +21,8 @@ import ru.practicum.shareit.user.exception.UserNotFoundException;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -66,8 +72,8 @@ class BookingServiceImplTest {
     @Test
     void addBookingFail() {
         BookingDto bookingDto = new BookingDto();
-        bookingDto.setItemId(100L);
-        assertThrows(UserNotFoundException.class, () -> bookingService.addBooking(100L, bookingDto));
+        bookingDto.setItemId(-1L);
+        assertThrows(UserNotFoundException.class, () -> bookingService.addBooking(-1L, bookingDto));
         assertThrows(EntityNotFoundException.class, () -> bookingService.addBooking(user1.getId(), bookingDto));
 
         bookingDto.setItemId(itemMadeByUser2.getId());
@@ -109,7 +115,7 @@ class BookingServiceImplTest {
         em.persist(booking);
 
         assertThrows(EntityNotFoundException.class,
-                () -> bookingService.approveBooking(user2.getId(), 100L, true));
+                () -> bookingService.approveBooking(user2.getId(), -1L, true));
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.approveBooking(user1.getId(), booking.getId(), true));
@@ -158,13 +164,123 @@ class BookingServiceImplTest {
         assertThat(responseDto.getStatus(), equalTo(BookingStatus.APPROVED));
     }
 
+    @Test
+    void overlappingBookingsConflict() {
+        var start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        Booking approved = makeBookingByUser1();
+        approved.setStart(start);
+        approved.setEnd(start.plusDays(1));
+        approved.setStatus(BookingStatus.APPROVED);
+        em.persist(approved);
+
+        Booking waiting = makeBookingByUser1();
+        waiting.setBooker(user3);
+        waiting.setStart(start.plusHours(1));
+        waiting.setEnd(start.plusHours(2));
+        em.persist(waiting);
+
+        assertThrows(DataConflictException.class,
+                () -> bookingService.approveBooking(user2.getId(), waiting.getId(), true));
+
+        itemMadeByUser2.setAvailable(true);
+        em.persist(itemMadeByUser2);
+
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(itemMadeByUser2.getId());
+        bookingDto.setStart(approved.getEnd().minusSeconds(1));
+        bookingDto.setEnd(approved.getEnd().plusSeconds(1000));
+        assertThrows(DataConflictException.class, () -> bookingService.addBooking(user3.getId(), bookingDto));
+
+        bookingDto.setStart(approved.getEnd());
+        BookingDto responseDto = bookingService.addBooking(user3.getId(), bookingDto);
+        assertThat(responseDto.getStatus(), equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    void approveBookings() {
+        var start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        Booking first = makeBooking(start, start.plusHours(1), BookingStatus.WAITING);
+        Booking overlapsFirst = makeBooking(start.plusMinutes(30), start.plusHours(2), BookingStatus.WAITING);
+        Booking approved = makeBooking(start.plusHours(5), start.plusHours(6), BookingStatus.APPROVED);
+        Booking overlapsRejected = makeBooking(start.plusHours(5), start.plusHours(7), BookingStatus.WAITING);
+        Booking kept = makeBooking(start.plusHours(10), start.plusHours(11), BookingStatus.APPROVED);
+        Booking overlapsKept = makeBooking(start.plusHours(10), start.plusHours(12), BookingStatus.WAITING);
+        Booking rejected = makeBooking(start.plusHours(20), start.plusHours(21), BookingStatus.REJECTED);
+
+        Item foreignItem = new Item();
+        foreignItem.setName("Item 2");
+        foreignItem.setDescription("Item 2 description");
+        foreignItem.setAvailable(true);
+        foreignItem.setSharerId(user3.getId());
+        em.persist(foreignItem);
+        Booking foreign = makeBooking(start, start.plusHours(1), BookingStatus.WAITING);
+        foreign.setItem(foreignItem);
+        em.persist(foreign);
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(user2.getId(), List.of(
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(overlapsFirst.getId(), true),
+                new BookingDecisionDto(approved.getId(), false),
+                new BookingDecisionDto(overlapsRejected.getId(), true),
+                new BookingDecisionDto(overlapsKept.getId(), true),
+                new BookingDecisionDto(rejected.getId(), false),
+                new BookingDecisionDto(foreign.getId(), true),
+                new BookingDecisionDto(-1L, true)));
+
+        assertThat(results, hasSize(8));
+        assertThat(results.get(0), equalTo(new BookingDecisionResultDto(first.getId(), BookingStatus.APPROVED, null)));
+        assertThat(results.get(1).getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(results.get(1).getError(), notNullValue());
+        assertThat(results.get(2), equalTo(new BookingDecisionResultDto(approved.getId(), BookingStatus.REJECTED, null)));
+        assertThat(results.get(3).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(results.get(4).getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(results.get(4).getError(), notNullValue());
+        assertThat(results.get(5).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(results.get(5).getError(), notNullValue());
+        assertThat(results.get(6).getStatus(), nullValue());
+        assertThat(results.get(6).getError(), notNullValue());
+        assertThat(results.get(7).getStatus(), nullValue());
+        assertThat(results.get(7).getError(), notNullValue());
+
+        assertThat(em.find(Booking.class, first.getId()).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(em.find(Booking.class, first.getId()).getVersion(), equalTo(1L));
+        assertThat(em.find(Booking.class, overlapsFirst.getId()).getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(em.find(Booking.class, approved.getId()).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(em.find(Booking.class, overlapsRejected.getId()).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(em.find(Booking.class, kept.getId()).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(em.find(Booking.class, overlapsKept.getId()).getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(em.find(Booking.class, foreign.getId()).getStatus(), equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    void approveBookingsFail() {
+        Booking booking = makeBookingByUser1();
+        em.persist(booking);
+
+        assertThrows(UserNotFoundException.class, () -> bookingService.approveBookings(-1L,
+                List.of(new BookingDecisionDto(booking.getId(), true))));
+        assertThrows(InvalidEntityException.class, () -> bookingService.approveBookings(user2.getId(),
+                List.of(new BookingDecisionDto(booking.getId(), null))));
+        assertThrows(InvalidEntityException.class, () -> bookingService.approveBookings(user2.getId(),
+                List.of(new BookingDecisionDto(booking.getId(), true), new BookingDecisionDto(booking.getId(), false))));
+    }
+
+    private Booking makeBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = makeBookingByUser1();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        em.persist(booking);
+        return booking;
+    }
+
     @Test
     void getBookingFail() {
         Booking booking = makeBookingByUser1();
         em.persist(booking);
 
         assertThrows(EntityNotFoundException.class,
-                () -> bookingService.getBooking(user2.getId(), 100L));
+                () -> bookingService.getBooking(user2.getId(), -1L));
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getBooking(user3.getId(), booking.getId()));
@@ -197,7 +313,7 @@ class BookingServiceImplTest {
         em.persist(booking);
 
         assertThrows(UserNotFoundException.class,
-                () -> bookingService.getUserBookings(100L, BookingState.ALL, 0, 10));
+                () -> bookingService.getUserBookings(-1L, BookingState.ALL, 0, 10));
     }
 
     @Test
@@ -233,7 +349,7 @@ class BookingServiceImplTest {
         em.persist(booking);
 
         assertThrows(UserNotFoundException.class,
-                () -> bookingService.getOwnerBookings(100L, BookingState.ALL, 0, 10));
+                () -> bookingService.getOwnerBookings(-1L, BookingState.ALL, 0, 10));
     }
 
     @Test
@@ -264,4 +380,71 @@ class BookingServiceImplTest {
         response = bookingService.getOwnerBookings(user2.getId(), BookingState.REJECTED, 0, 10);
         assertThat(response, hasSize(0));
     }
+
+    @Test
+    void getUserBookingsAfter() {
+        List<Booking> bookings = List.of(makeBookingByUser1(), makeBookingByUser1(), makeBookingByUser1());
+        bookings.forEach(em::persist);
+
+        List<BookingDto> response = bookingService.getUserBookingsAfter(
+                user1.getId(), BookingState.ALL, Long.MAX_VALUE, 2);
+        assertThat(response, hasSize(2));
+        assertThat(response.get(0).getId(), equalTo(bookings.get(2).getId()));
+        assertThat(response.get(1).getId(), equalTo(bookings.get(1).getId()));
+
+        response = bookingService.getUserBookingsAfter(user1.getId(), BookingState.ALL, response.get(1).getId(), 2);
+        assertThat(response, hasSize(1));
+        assertThat(response.get(0).getId(), equalTo(bookings.get(0).getId()));
+
+        response = bookingService.getUserBookingsAfter(user1.getId(), BookingState.FUTURE, Long.MAX_VALUE, 10);
+        assertThat(response, hasSize(3));
+
+        response = bookingService.getUserBookingsAfter(user1.getId(), BookingState.PAST, Long.MAX_VALUE, 10);
+        assertThat(response, hasSize(0));
+
+        assertThrows(UserNotFoundException.class,
+                () -> bookingService.getUserBookingsAfter(-1L, BookingState.ALL, Long.MAX_VALUE, 10));
+    }
+
+    @Test
+    void getOwnerBookingsAfter() {
+        List<Booking> bookings = List.of(makeBookingByUser1(), makeBookingByUser1(), makeBookingByUser1());
+        bookings.forEach(em::persist);
+
+        List<BookingDto> response = bookingService.getOwnerBookingsAfter(
+                user2.getId(), BookingState.ALL, Long.MAX_VALUE, 2);
+        assertThat(response, hasSize(2));
+        assertThat(response.get(0).getId(), equalTo(bookings.get(2).getId()));
+
+        response = bookingService.getOwnerBookingsAfter(user2.getId(), BookingState.ALL, response.get(1).getId(), 2);
+        assertThat(response, hasSize(1));
+        assertThat(response.get(0).getId(), equalTo(bookings.get(0).getId()));
+
+        response = bookingService.getOwnerBookingsAfter(user2.getId(), BookingState.WAITING, Long.MAX_VALUE, 10);
+        assertThat(response, hasSize(3));
+
+        response = bookingService.getOwnerBookingsAfter(user2.getId(), BookingState.CURRENT, Long.MAX_VALUE, 10);
+        assertThat(response, hasSize(0));
+    }
+
+    @Test
+    void exportOwnerBookings() {
+        List<Booking> bookings = List.of(makeBookingByUser1(), makeBookingByUser1());
+        bookings.forEach(em::persist);
+
+        List<BookingExportDto> exported = new ArrayList<>();
+        bookingService.exportOwnerBookings(user2.getId(), exported::add);
+        assertThat(exported, hasSize(2));
+        assertThat(exported.get(0).getId(), equalTo(bookings.get(0).getId()));
+        assertThat(exported.get(1).getId(), equalTo(bookings.get(1).getId()));
+        assertThat(exported.get(0).getItemName(), equalTo(itemMadeByUser2.getName()));
+        assertThat(exported.get(0).getBookerId(), equalTo(user1.getId()));
+        assertThat(exported.get(0).getStatus(), equalTo(BookingStatus.WAITING));
+
+        exported.clear();
+        bookingService.exportOwnerBookings(user1.getId(), exported::add);
+        assertThat(exported, hasSize(0));
+
+        assertThrows(UserNotFoundException.class, () -> bookingService.exportOwnerBookings(-1L, exported::add));
+    }
 }
\ No newline at end of file
@@ -3,11 +3,12 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.error.exception.DataConflictException;
 import ru.practicum.shareit.error.exception.EntityNotFoundException;
 import ru.practicum.shareit.error.exception.InvalidEntityException;
 import ru.practicum.shareit.item.exception.ItemUnavailableException;
@@ -15,11 +16,14 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.storage.UserIdCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -49,7 +53,8 @@ class BookingServiceImplUnitTest {
         bookingRepository = Mockito.mock(BookingRepository.class);
         userRepository = Mockito.mock(UserRepository.class);
         itemRepository = Mockito.mock(ItemRepository.class);
-        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository,
+                new UserIdCache(userRepository, 10), false);
 
         bookingDto = new BookingDto(
                 1L,
@@ -68,19 +73,22 @@ class BookingServiceImplUnitTest {
                 "Item name",
                 "Item description",
                 false,
-                null
+                null,
+                0L
         );
 
         owner = new User(
                 1L,
                 "owner",
-                "user@email.com"
+                "user@email.com",
+                0L
         );
 
         booker = new User(
                 2L,
                 "Booker",
-                "user1@email.com"
+                "user1@email.com",
+                0L
         );
 
         booking = new Booking(
@@ -89,7 +97,8 @@ class BookingServiceImplUnitTest {
                 LocalDateTime.now().plusSeconds(1000),
                 item,
                 booker,
-                BookingStatus.WAITING
+                BookingStatus.WAITING,
+                0L
         );
     }
 
@@ -153,10 +162,31 @@ class BookingServiceImplUnitTest {
                 LocalDateTime.now().plusSeconds(1000),
                 item,
                 booker,
-                BookingStatus.APPROVED
+                BookingStatus.APPROVED,
+                0L
         );
 
-        Mockito.when(bookingRepository.save(any())).thenReturn(savedBooking);
+        Mockito.when(bookingRepository.saveAndFlush(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()));
+        assertThrows(DataConflictException.class,
+                () -> bookingService.approveBooking(owner.getId(), booking.getId(), true));
+
+        booking.setStatus(BookingStatus.WAITING);
+        Mockito.doThrow(new DataIntegrityViolationException("overlap", new SQLException(
+                        "conflicting key value violates exclusion constraint \"excl_bookings_approved_overlap\"", "23P01")))
+                .when(bookingRepository).saveAndFlush(any());
+        assertThrows(DataConflictException.class,
+                () -> bookingService.approveBooking(owner.getId(), booking.getId(), true));
+
+        booking.setStatus(BookingStatus.WAITING);
+        Mockito.doThrow(new DataIntegrityViolationException("foreign key", new SQLException(
+                        "insert or update on table \"bookings\" violates foreign key constraint \"fk_booking\"", "23503")))
+                .when(bookingRepository).saveAndFlush(any());
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.approveBooking(owner.getId(), booking.getId(), true));
+
+        booking.setStatus(BookingStatus.WAITING);
+        Mockito.doReturn(savedBooking).when(bookingRepository).saveAndFlush(any());
         BookingDto response = bookingService.approveBooking(owner.getId(), booking.getId(), true);
         assertThat(response.getStatus(), equalTo(BookingStatus.APPROVED));
         assertThat(response.getBookerId(), equalTo(booker.getId()));
@@ -164,6 +194,34 @@ class BookingServiceImplUnitTest {
         assertThat(response.getItem().getName(), equalTo(item.getName()));
         assertThat(response.getStart(), equalTo(booking.getStart()));
         assertThat(response.getEnd(), equalTo(booking.getEnd()));
+        Mockito.verify(itemRepository, Mockito.never()).findByIdForUpdate(anyLong());
+    }
+
+    @Test
+    void approveBookingLocksItemWithoutExclusionConstraint() {
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository,
+                new UserIdCache(userRepository, 10), true);
+        Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+
+        Mockito.verify(itemRepository).findByIdForUpdate(item.getId());
+    }
+
+    @Test
+    void approveBookingsLocksItemsOnlyWithoutExclusionConstraint() {
+        Mockito.when(userRepository.existsById(owner.getId())).thenReturn(true);
+        Mockito.when(bookingRepository.findAllWithItemByIdIn(any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.updateStatusByOwner(any(), any(), any())).thenReturn(1);
+        var decisions = List.of(new BookingDecisionDto(booking.getId(), true));
+
+        bookingService.approveBookings(owner.getId(), decisions);
+        Mockito.verify(itemRepository, Mockito.never()).findAllByBookingIdsForUpdate(any(), any());
+
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository,
+                new UserIdCache(userRepository, 10), true);
+        bookingService.approveBookings(owner.getId(), decisions);
+        Mockito.verify(itemRepository).findAllByBookingIdsForUpdate(owner.getId(), Set.of(booking.getId()));
     }
 
     @Test
@@ -192,42 +250,42 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        Mockito.when(bookingRepository.findByBookerId(anyLong(), any())).thenReturn(makePage());
+        Mockito.when(bookingRepository.findByBookerId(anyLong(), any())).thenReturn(List.of(booking));
         List<BookingDto> response = bookingService.getUserBookings(1L, BookingState.ALL, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
 
         Mockito.when(bookingRepository
                 .findByBookerIdAndStartBeforeAndEndAfter(anyLong(), any(), any(), any()))
-                .thenReturn(makePage());
+                .thenReturn(List.of(booking));
         response = bookingService.getUserBookings(1L, BookingState.CURRENT, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
 
         Mockito.when(bookingRepository
                 .findByBookerIdAndEndBefore(anyLong(), any(), any()))
-                .thenReturn(makePage());
+                .thenReturn(List.of(booking));
         response = bookingService.getUserBookings(1L, BookingState.PAST, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
 
         Mockito.when(bookingRepository
                         .findByBookerIdAndStartAfter(anyLong(), any(), any()))
-                .thenReturn(makePage());
+                .thenReturn(List.of(booking));
         response = bookingService.getUserBookings(1L, BookingState.FUTURE, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
 
         Mockito.when(bookingRepository
                         .findByBookerIdAndStatus(anyLong(), any(), any()))
-                .thenReturn(makePage());
+                .thenReturn(List.of(booking));
         response = bookingService.getUserBookings(1L, BookingState.WAITING, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
 
         Mockito.when(bookingRepository
                         .findByBookerIdAndStatus(anyLong(), any(), any()))
-                .thenReturn(makePage());
+                .thenReturn(List.of(booking));
         response = bookingService.getUserBookings(1L, BookingState.REJECTED, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
@@ -243,51 +301,44 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        Mockito.when(bookingRepository.findAllByOwner(anyLong(), any())).thenReturn(makePage());
+        Mockito.when(bookingRepository.findAllByOwner(anyLong(), any())).thenReturn(List.of(booking));
         List<BookingDto> response = bookingService.getOwnerBookings(1L, BookingState.ALL, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
 
         Mockito.when(bookingRepository
                         .findCurrentByOwner(anyLong(), any(), any(), any()))
-                .thenReturn(makePage());
+                .thenReturn(List.of(booking));
         response = bookingService.getOwnerBookings(1L, BookingState.CURRENT, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
 
         Mockito.when(bookingRepository
                         .findPastByOwner(anyLong(), any(), any()))
-                .thenReturn(makePage());
+                .thenReturn(List.of(booking));
         response = bookingService.getOwnerBookings(1L, BookingState.PAST, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
 
         Mockito.when(bookingRepository
                         .findFutureByOwner(anyLong(), any(), any()))
-                .thenReturn(makePage());
+                .thenReturn(List.of(booking));
         response = bookingService.getOwnerBookings(1L, BookingState.FUTURE, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
 
         Mockito.when(bookingRepository
                         .findByOwnerAndStatus(anyLong(), any(), any()))
-                .thenReturn(makePage());
+                .thenReturn(List.of(booking));
         response = bookingService.getOwnerBookings(1L, BookingState.WAITING, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
 
         Mockito.when(bookingRepository
                         .findByOwnerAndStatus(anyLong(), any(), any()))
-                .thenReturn(makePage());
+                .thenReturn(List.of(booking));
         response = bookingService.getOwnerBookings(1L, BookingState.REJECTED, 0, 10);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getBooker().getName(), equalTo(booker.getName()));
     }
-
-    private Page<Booking> makePage() {
-        int totalElements = 10;
-        int pageSize = 5;
-        PageRequest pageable = PageRequest.of(0, pageSize);
-        return new PageImpl<>(List.of(booking), pageable, totalElements);
-    }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+@Tag("benchmark")
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Slf4j
+class BookingWriteBenchmarkTest {
+
+    private static final int BOOKINGS = 1000;
+    private static final int ROUNDS = 3;
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setup() {
+        owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("benchmark-owner@email.com");
+        owner = userRepository.save(owner);
+
+        booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("benchmark-booker@email.com");
+        booker = userRepository.save(booker);
+
+        item = new Item();
+        item.setName("Item");
+        item.setDescription("Item description");
+        item.setAvailable(true);
+        item.setSharerId(owner.getId());
+        item = itemRepository.save(item);
+    }
+
+    @AfterEach
+    void cleanup() {
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void sequenceBatchesBookingInserts() {
+        Set<Long> identityIds = Set.of();
+        long sequenceStatements = 0;
+        // first round warms up the connection pool and statement caches
+        for (int round = 0; round < ROUNDS; round++) {
+            identityIds = insertWithIdentity();
+            sequenceStatements = insertWithSequence();
+        }
+
+        // identity reads the generated key back after every row, the sequence hands out 50 ids per call
+        assertThat(identityIds.size(), equalTo(BOOKINGS));
+        assertThat(sequenceStatements, lessThan(BOOKINGS / 10L));
+    }
+
+    private Set<Long> insertWithIdentity() {
+        Set<Long> ids = new HashSet<>();
+        long started = System.nanoTime();
+        inRolledBackTransaction(() -> {
+            for (int i = 0; i < BOOKINGS; i++) {
+                var start = LocalDateTime.now().plusDays(i + 1);
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "insert into bookings (start_date, end_date, item_id, booker_id, status, version) " +
+                                    "values (?, ?, ?, ?, ?, 0)",
+                            new String[] {"booking_id"});
+                    statement.setTimestamp(1, Timestamp.valueOf(start));
+                    statement.setTimestamp(2, Timestamp.valueOf(start.plusHours(12)));
+                    statement.setLong(3, item.getId());
+                    statement.setLong(4, booker.getId());
+                    statement.setString(5, BookingStatus.WAITING.name());
+                    return statement;
+                }, keyHolder);
+                ids.add(keyHolder.getKey().longValue());
+            }
+        });
+        log("identity", System.nanoTime() - started, BOOKINGS);
+        return ids;
+    }
+
+    private long insertWithSequence() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        long started = System.nanoTime();
+        inRolledBackTransaction(() -> {
+            for (int i = 0; i < BOOKINGS; i++) {
+                var start = LocalDateTime.now().plusDays(i + 1);
+                Booking booking = new Booking();
+                booking.setItem(em.getReference(Item.class, item.getId()));
+                booking.setBooker(em.getReference(User.class, booker.getId()));
+                booking.setStart(start);
+                booking.setEnd(start.plusHours(12));
+                booking.setStatus(BookingStatus.WAITING);
+                em.persist(booking);
+            }
+            em.flush();
+        });
+        long statements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        log("sequence", System.nanoTime() - started, statements);
+        return statements;
+    }
+
+    private void inRolledBackTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            action.run();
+            status.setRollbackOnly();
+        });
+    }
+
+    private static void log(String strategy, long elapsed, long statements) {
+        log.info("{}: {} bookings in {} ms, {} bookings/s, {} statements", strategy, BOOKINGS,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), BOOKINGS * 1_000_000_000L / elapsed, statements);
+    }
+}
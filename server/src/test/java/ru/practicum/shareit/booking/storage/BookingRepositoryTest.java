@@ -1,13 +1,14 @@
 package ru.practicum.shareit.booking.storage;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.Booking;
@@ -17,11 +18,12 @@ import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class BookingRepositoryTest {
@@ -125,45 +127,45 @@ class BookingRepositoryTest {
 
     @Test
     void findByBookerIdOrderByIdDesc() {
-        Page<Booking> response = repository.findByBookerId(user2.getId(), pageOrderByIdDesc);
+        List<Booking> response = repository.findByBookerId(user2.getId(), pageOrderByIdDesc);
 
-        assertThat(response.getTotalElements(), equalTo(5L));
+        assertThat(response.size(), equalTo(5));
     }
 
     @Test
     void findByBookerIdAndStatusOrderByIdDesc() {
-        Page<Booking> response = repository
+        List<Booking> response = repository
                 .findByBookerIdAndStatus(user2.getId(), BookingStatus.APPROVED, pageOrderByIdDesc);
-        assertThat(response.getTotalElements(), equalTo(3L));
+        assertThat(response.size(), equalTo(3));
 
         response = repository.findByBookerIdAndStatus(user2.getId(), BookingStatus.REJECTED, pageOrderByIdDesc);
-        assertThat(response.getTotalElements(), equalTo(1L));
+        assertThat(response.size(), equalTo(1));
 
         response = repository.findByBookerIdAndStatus(user2.getId(), BookingStatus.WAITING, pageOrderByIdDesc);
-        assertThat(response.getTotalElements(), equalTo(1L));
+        assertThat(response.size(), equalTo(1));
     }
 
     @Test
     void findByBookerIdAndStartBeforeAndEndAfterOrderByEndDesc() {
-        Page<Booking> response = repository
+        List<Booking> response = repository
                 .findByBookerIdAndStartBeforeAndEndAfter(
                         user2.getId(), LocalDateTime.now(), LocalDateTime.now(),
                         page.withSort(Sort.by(Sort.Direction.DESC, "end")));
-        assertThat(response.getTotalElements(), equalTo(2L));
+        assertThat(response.size(), equalTo(2));
     }
 
     @Test
     void findByBookerIdAndEndBeforeOrderByIdDesc() {
-        Page<Booking> response = repository
+        List<Booking> response = repository
                 .findByBookerIdAndEndBefore(user2.getId(), LocalDateTime.now(), pageOrderByIdDesc);
-        assertThat(response.getTotalElements(), equalTo(1L));
+        assertThat(response.size(), equalTo(1));
     }
 
     @Test
     void findByBookerIdAndStartAfterOrderByIdDesc() {
-        Page<Booking> response = repository
+        List<Booking> response = repository
                 .findByBookerIdAndStartAfter(user2.getId(), LocalDateTime.now(), pageOrderByIdDesc);
-        assertThat(response.getTotalElements(), equalTo(2L));
+        assertThat(response.size(), equalTo(2));
     }
 
     @Test
@@ -175,48 +177,110 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByOwner() {
-        Page<Booking> response = repository.findAllByOwner(user1.getId(), page);
-        assertThat(response.getTotalElements(), equalTo(6L));
+        List<Booking> response = repository.findAllByOwner(user1.getId(), page);
+        assertThat(response.size(), equalTo(6));
 
         response = repository.findAllByOwner(user2.getId(), page);
-        assertThat(response.getTotalElements(), equalTo(0L));
+        assertThat(response.size(), equalTo(0));
     }
 
     @Test
     void findCurrentByOwner() {
-        Page<Booking> response = repository.findCurrentByOwner(user1.getId(), LocalDateTime.now(), LocalDateTime.now(), page);
-        assertThat(response.getTotalElements(), equalTo(2L));
+        List<Booking> response = repository.findCurrentByOwner(user1.getId(), LocalDateTime.now(), LocalDateTime.now(), page);
+        assertThat(response.size(), equalTo(2));
     }
 
     @Test
     void findPastByOwner() {
-        Page<Booking> response = repository.findPastByOwner(user1.getId(), LocalDateTime.now(), page);
-        assertThat(response.getTotalElements(), equalTo(2L));
+        List<Booking> response = repository.findPastByOwner(user1.getId(), LocalDateTime.now(), page);
+        assertThat(response.size(), equalTo(2));
     }
 
     @Test
     void findFutureByOwner() {
-        Page<Booking> response = repository.findFutureByOwner(user1.getId(), LocalDateTime.now(), page);
-        assertThat(response.getTotalElements(), equalTo(2L));
+        List<Booking> response = repository.findFutureByOwner(user1.getId(), LocalDateTime.now(), page);
+        assertThat(response.size(), equalTo(2));
     }
 
     @Test
     void findByOwnerAndStatus() {
-        Page<Booking> response = repository.findByOwnerAndStatus(user1.getId(), BookingStatus.APPROVED, page);
-        assertThat(response.getTotalElements(), equalTo(4L));
+        List<Booking> response = repository.findByOwnerAndStatus(user1.getId(), BookingStatus.APPROVED, page);
+        assertThat(response.size(), equalTo(4));
 
         response = repository.findByOwnerAndStatus(user1.getId(), BookingStatus.WAITING, page);
-        assertThat(response.getTotalElements(), equalTo(1L));
+        assertThat(response.size(), equalTo(1));
 
         response = repository.findByOwnerAndStatus(user1.getId(), BookingStatus.REJECTED, page);
-        assertThat(response.getTotalElements(), equalTo(1L));
+        assertThat(response.size(), equalTo(1));
     }
 
     @Test
-    void findByItemOrderByStartAsc() {
-        List<Booking> response = repository.findByItemOrderByStartAsc(itemOwnedByUser1);
-        assertThat(response.size(), equalTo(6));
-        assertThat(response.get(0).getId(), equalTo(bookingUser2PastApproved.getId()));
-        assertThat(response.get(response.size() - 1).getId(), equalTo(bookingUser2FutureWaiting.getId()));
+    void findFirstByItemIdAndStatusNotAndStartBeforeOrderByStartDescIdAsc() {
+        Optional<Booking> response = repository.findFirstByItemIdAndStatusNotAndStartBeforeOrderByStartDescIdAsc(
+                itemOwnedByUser1.getId(), BookingStatus.REJECTED, LocalDateTime.now());
+        assertThat(response.map(Booking::getId).orElse(null), equalTo(bookingUser2CurrentApproved.getId()));
+    }
+
+    @Test
+    void findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAscIdAsc() {
+        Optional<Booking> response = repository.findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAscIdAsc(
+                itemOwnedByUser1.getId(), BookingStatus.REJECTED, LocalDateTime.now());
+        assertThat(response.map(Booking::getId).orElse(null), equalTo(bookingUser2FutureApproved.getId()));
+    }
+
+    @Test
+    void findLastByItemIds() {
+        List<Booking> response = repository.findLastByItemIds(List.of(itemOwnedByUser1.getId()), LocalDateTime.now());
+        assertThat(response.size(), equalTo(1));
+        assertThat(response.get(0).getId(), equalTo(bookingUser2CurrentApproved.getId()));
+
+        response = repository.findLastByItemIds(List.of(itemOwnedByUser1.getId() + 100), LocalDateTime.now());
+        assertThat(response.size(), equalTo(0));
+    }
+
+    @Test
+    void findNextByItemIds() {
+        List<Booking> response = repository.findNextByItemIds(List.of(itemOwnedByUser1.getId()), LocalDateTime.now());
+        assertThat(response.size(), equalTo(1));
+        assertThat(response.get(0).getId(), equalTo(bookingUser2FutureApproved.getId()));
+    }
+
+    @Test
+    void lastAndNextBreakStartTiesById() {
+        Booking sameStart = new Booking();
+        sameStart.setItem(itemOwnedByUser1);
+        sameStart.setBooker(user3);
+        sameStart.setStart(bookingUser2FutureApproved.getStart());
+        sameStart.setEnd(bookingUser2FutureApproved.getEnd());
+        sameStart.setStatus(BookingStatus.WAITING);
+        em.persist(sameStart);
+
+        List<Booking> response = repository.findNextByItemIds(List.of(itemOwnedByUser1.getId()), LocalDateTime.now());
+        assertThat(response.size(), equalTo(2));
+        assertThat(response.get(0).getId(), equalTo(bookingUser2FutureApproved.getId()));
+
+        Optional<Booking> first = repository.findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAscIdAsc(
+                itemOwnedByUser1.getId(), BookingStatus.REJECTED, LocalDateTime.now());
+        assertThat(first.map(Booking::getId).orElse(null), equalTo(bookingUser2FutureApproved.getId()));
+    }
+
+    @Test
+    void pagedQueriesIssueSingleStatement() {
+        em.flush();
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        PageRequest firstPage = PageRequest.of(0, 2);
+
+        statistics.clear();
+        repository.findAll(firstPage);
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+
+        statistics.clear();
+        repository.findAllByOwner(user1.getId(), firstPage);
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+
+        statistics.clear();
+        repository.findByBookerId(user2.getId(), firstPage);
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+
+/*
+ * H2 only puts a foreign key on an existing index with exactly its columns and creates
+ * its own index otherwise (see h2/V10). A composite index therefore competes with that
+ * index on an equality-only predicate, so it is checked with a predicate on its second
+ * column, the way the keyset and period queries use it.
+ */
+@DataJpaTest
+class SchemaIndexTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void bookerQueriesUseBookerIndexes() {
+        assertThat(explain("SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.status = 'WAITING' " +
+                        "ORDER BY b.booking_id DESC"),
+                containsStringIgnoringCase("idx_bookings_booker_status"));
+        assertThat(explain("SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.booking_id < 100 " +
+                        "ORDER BY b.booking_id DESC"),
+                containsStringIgnoringCase("idx_bookings_booker_id"));
+    }
+
+    @Test
+    void itemBookingQueriesUseItemPeriodIndex() {
+        assertThat(explain("SELECT * FROM bookings b WHERE b.item_id = 1 AND b.start_date < CURRENT_TIMESTAMP " +
+                        "ORDER BY b.start_date DESC"),
+                containsStringIgnoringCase("idx_bookings_item_period"));
+        assertThat(explain("SELECT b.start_date, b.end_date FROM bookings b WHERE b.item_id = 1 " +
+                        "AND b.status = 'APPROVED' AND b.start_date < CURRENT_TIMESTAMP " +
+                        "AND b.end_date > CURRENT_TIMESTAMP ORDER BY b.start_date"),
+                containsStringIgnoringCase("idx_bookings_item_period"));
+    }
+
+    @Test
+    void ownerQueriesUseSharerIndex() {
+        assertThat(explain("SELECT * FROM items i WHERE i.sharer_id = 1 AND i.item_id > 10 ORDER BY i.item_id"),
+                containsStringIgnoringCase("idx_items_sharer_id"));
+    }
+
+    @Test
+    void requestQueriesUseRequestIndexes() {
+        assertThat(explain("SELECT * FROM items i WHERE i.request_id IN (1, 2, 3)"),
+                containsStringIgnoringCase("idx_items_request_id"));
+        assertThat(explain("SELECT * FROM requests r WHERE r.requester_id = 1 " +
+                        "AND r.created < CURRENT_TIMESTAMP ORDER BY r.created DESC"),
+                containsStringIgnoringCase("idx_requests_requester_created"));
+    }
+
+    @Test
+    void commentQueriesUseItemIndex() {
+        assertThat(explain("SELECT * FROM comments c WHERE c.item_id IN (1, 2, 3)"),
+                containsStringIgnoringCase("idx_comments_item_id"));
+    }
+
+    private String explain(String sql) {
+        return em.getEntityManager()
+                .createNativeQuery("EXPLAIN " + sql)
+                .getSingleResult()
+                .toString();
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Tag("benchmark")
+@Slf4j
+class VirtualThreadsBenchmarkTest {
+
+    // Tomcat's default max threads against a burst of requests that each block on I/O
+    private static final int PLATFORM_THREADS = 200;
+    private static final int REQUESTS = 5000;
+    private static final long BLOCKING_MILLIS = 50;
+    private static final int ROUNDS = 3;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void virtualThreadsServeBlockingBurstFaster() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need JDK 21");
+
+        Result platform = null;
+        Result virtual = null;
+        // first round warms up the JIT and the carrier pool
+        for (int round = 0; round < ROUNDS; round++) {
+            platform = run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS));
+            virtual = run("virtual", new VirtualThreadsConfig().virtualThreadExecutor());
+        }
+
+        assertThat(virtual.elapsedNanos, lessThan(platform.elapsedNanos));
+        assertThat(platform.peakThreads, greaterThan(virtual.peakThreads));
+    }
+
+    private Result run(String mode, ExecutorService executor) throws Exception {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        threads.resetPeakThreadCount();
+        long started = System.nanoTime();
+
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                Thread.sleep(BLOCKING_MILLIS);
+                return null;
+            }));
+        }
+        long heapDuring = runtime.totalMemory() - runtime.freeMemory();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        int peakThreads = threads.getPeakThreadCount();
+        log.info("{}: {} requests in {} ms, {} requests/s, peak platform threads {}, heap growth {} KB", mode,
+                REQUESTS, TimeUnit.NANOSECONDS.toMillis(elapsed), REQUESTS * 1_000_000_000L / elapsed,
+                peakThreads, (heapDuring - heapBefore) / 1024);
+        return new Result(elapsed, peakThreads);
+    }
+
+    private static final class Result {
+        private final long elapsedNanos;
+        private final int peakThreads;
+
+        private Result(long elapsedNanos, int peakThreads) {
+            this.elapsedNanos = elapsedNanos;
+            this.peakThreads = peakThreads;
+        }
+    }
+}
@@ -5,24 +5,39 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.config.ETagConfig;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExportDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(ETagConfig.class)
 class ItemControllerTest {
 
     @Autowired
@@ -70,6 +85,22 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.requestId", is(itemDto.getRequestId()), Long.class));
     }
 
+    @Test
+    void addItems() throws Exception {
+        when(itemService.addItems(anyLong(), any()))
+                .thenReturn(List.of(itemDto, itemDto));
+
+        mvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(List.of(itemDto, itemDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].name", is(itemDto.getName())));
+    }
+
     @Test
     void updateItem() throws Exception {
         when(itemService.updateItem(anyLong(), any(), anyLong()))
@@ -104,6 +135,36 @@ class ItemControllerTest {
 
     }
 
+    @Test
+    void getItemNotModified() throws Exception {
+        var item = new ItemDto(1L, "Item Name", "Description", true, null, null, List.of(commentDto), 1L);
+        when(itemService.getItemById(anyLong(), anyLong()))
+                .thenReturn(item);
+
+        String etag = mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/items/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // a renamed comment author changes neither the item nor its comments, only the body
+        var renamed = new CommentDto(commentDto.getId(), commentDto.getText(), "Renamed author",
+                commentDto.getCreated());
+        when(itemService.getItemById(anyLong(), anyLong()))
+                .thenReturn(new ItemDto(1L, "Item Name", "Description", true, null, null, List.of(renamed), 1L));
+
+        mvc.perform(get("/items/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName", is("Renamed author")));
+    }
+
     @Test
     void getItemsForSharer() throws Exception {
         when(itemService.getAllForSharer(anyLong(), anyInt(), anyInt()))
@@ -136,6 +197,63 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].requestId", is(itemDto.getRequestId()), Long.class));
     }
 
+    @Test
+    void searchItemForPeriod() throws Exception {
+        var start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemService.search(anyString(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(Collections.singletonList(itemDto));
+
+        mvc.perform(get("/items/search?text=search-text&start=2030-01-01T10:00:00&end=2030-01-02T10:00:00")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class));
+        verify(itemService).search("search-text", start, start.plusDays(1), 0, 10);
+    }
+
+    @Test
+    void exportItems() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ItemExportDto> action = invocation.getArgument(1);
+            action.accept(new ItemExportDto(1L, "Drill", "Cordless drill", true, null));
+            action.accept(new ItemExportDto(2L, "Saw", "Electric saw", false, 5L));
+            return null;
+        }).when(itemService).exportForSharer(anyLong(), any());
+
+        MvcResult result = mvc.perform(get("/items/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"name\":\"Drill\",\"description\":\"Cordless drill\",\"available\":true,\"requestId\":null}\n" +
+                                "{\"id\":2,\"name\":\"Saw\",\"description\":\"Electric saw\",\"available\":false,\"requestId\":5}\n"));
+        verify(itemService).exportForSharer(eq(1L), any());
+    }
+
+    @Test
+    void getAvailability() throws Exception {
+        var from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        var to = from.plusDays(1);
+        when(itemService.getAvailability(anyLong(), any(), any()))
+                .thenReturn(new ItemAvailabilityDto(1L, from, to,
+                        List.of(new IntervalDto(from.plusHours(1), from.plusHours(2))),
+                        List.of(new IntervalDto(from, from.plusHours(1)), new IntervalDto(from.plusHours(2), to))));
+
+        mvc.perform(get("/items/1/availability?from=2030-01-01T10:00:00&to=2030-01-02T10:00:00")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1L), Long.class))
+                .andExpect(jsonPath("$.busy", hasSize(1)))
+                .andExpect(jsonPath("$.busy[0].start", is("2030-01-01T11:00:00")))
+                .andExpect(jsonPath("$.free", hasSize(2)))
+                .andExpect(jsonPath("$.free[1].end", is("2030-01-02T10:00:00")));
+        verify(itemService).getAvailability(1L, from, to);
+    }
+
     @Test
     void addComment() throws Exception {
         when(itemService.addComment(anyLong(), anyLong(), any()))
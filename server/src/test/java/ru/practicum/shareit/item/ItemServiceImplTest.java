@@ -2,6 +2,8 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -9,7 +11,10 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.error.exception.EntityNotFoundException;
+import ru.practicum.shareit.error.exception.InvalidEntityException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.InvalidCommentAuthorException;
 import ru.practicum.shareit.item.exception.OwnerMismatchException;
@@ -21,7 +26,10 @@ import ru.practicum.shareit.user.exception.UserNotFoundException;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -92,7 +100,7 @@ class ItemServiceImplTest {
     void addItemFail() {
         ItemDto dto = new ItemDto(1L, "Item name", "description",
                 true, null, null, null, 1L);
-        assertThrows(UserNotFoundException.class, () -> itemService.addItem(100L, dto));
+        assertThrows(UserNotFoundException.class, () -> itemService.addItem(-1L, dto));
     }
 
 
@@ -112,13 +120,38 @@ class ItemServiceImplTest {
         assertThat(item.isAvailable(), equalTo(dto.getAvailable()));
     }
 
+    @Test
+    void addItems() {
+        List<ItemDto> dtos = IntStream.range(0, 120)
+                .mapToObj(i -> new ItemDto(null, "Batch item " + i, "description", true, null, null, null, null))
+                .collect(Collectors.toList());
+        em.flush();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            List<ItemDto> response = itemService.addItems(user1.getId(), dtos);
+            em.flush();
+
+            assertThat(response, hasSize(120));
+            assertThat(response.stream().map(ItemDto::getId).distinct().count(), equalTo(120L));
+            assertThat(statistics.getEntityInsertCount(), equalTo(120L));
+            // a few sequence calls and one statement per jdbc batch instead of one per row
+            assertThat(statistics.getPrepareStatementCount(), lessThan(10L));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        assertThrows(UserNotFoundException.class, () -> itemService.addItems(-1L, dtos));
+    }
+
     @Test
     void updateItemFail() {
         ItemDto dto = new ItemDto(1L, "Item name", "description", true,
                 null, null, null, null);
 
-        assertThrows(UserNotFoundException.class, () -> itemService.updateItem(100L, dto, item.getId()));
-        assertThrows(EntityNotFoundException.class, () -> itemService.updateItem(user2.getId(), dto, 100L));
+        assertThrows(UserNotFoundException.class, () -> itemService.updateItem(-1L, dto, item.getId()));
+        assertThrows(EntityNotFoundException.class, () -> itemService.updateItem(user2.getId(), dto, -1L));
         assertThrows(OwnerMismatchException.class, () -> itemService.updateItem(user1.getId(), dto, item.getId()));
     }
 
@@ -146,7 +179,7 @@ class ItemServiceImplTest {
 
     @Test
     void getItemById() {
-        assertThrows(EntityNotFoundException.class, () -> itemService.getItemById(user1.getId(), 100L));
+        assertThrows(EntityNotFoundException.class, () -> itemService.getItemById(user1.getId(), -1L));
 
 
         ItemDto response = itemService.getItemById(user1.getId(), item.getId());
@@ -171,7 +204,7 @@ class ItemServiceImplTest {
     @Test
     void getAllForSharerFail() {
         assertThrows(UserNotFoundException.class,
-                () -> itemService.getAllForSharer(100L, 0, 10));
+                () -> itemService.getAllForSharer(-1L, 0, 10));
 
 
         List<ItemDto> response = itemService.getAllForSharer(user1.getId(), 0, 10);
@@ -221,6 +254,104 @@ class ItemServiceImplTest {
         response = itemService.search("descr  ", 0, 10);
         assertThat(response, hasSize(1));
 
+        Item itemMatchedByName = new Item();
+        itemMatchedByName.setName("Drill");
+        itemMatchedByName.setDescription("Cordless");
+        itemMatchedByName.setAvailable(true);
+        itemMatchedByName.setSharerId(user2.getId());
+        em.persist(itemMatchedByName);
+
+        response = itemService.search("dril", 0, 10);
+        assertThat(response, hasSize(1));
+        assertThat(response.get(0).getId(), equalTo(itemMatchedByName.getId()));
+
+    }
+
+    @Test
+    void searchTreatsWildcardsLiterally() {
+        Item plain = new Item();
+        plain.setName("Drill");
+        plain.setDescription("Cordless");
+        plain.setAvailable(true);
+        plain.setSharerId(user2.getId());
+        em.persist(plain);
+
+        Item withPercent = new Item();
+        withPercent.setName("Battery");
+        withPercent.setDescription("Charged to 100%, spare_cell");
+        withPercent.setAvailable(true);
+        withPercent.setSharerId(user2.getId());
+        em.persist(withPercent);
+
+        List<ItemDto> response = itemService.search("%", 0, 10);
+        assertThat(response, hasSize(1));
+        assertThat(response.get(0).getId(), equalTo(withPercent.getId()));
+
+        response = itemService.search("_", 0, 10);
+        assertThat(response, hasSize(1));
+        assertThat(response.get(0).getId(), equalTo(withPercent.getId()));
+
+        response = itemService.search("\\", 0, 10);
+        assertThat(response, hasSize(0));
+    }
+
+    @Test
+    void searchForPeriod() {
+        item.setAvailable(true);
+        em.persist(item);
+        var start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusHours(1);
+        nextBooking.setStart(start.minusSeconds(10));
+        nextBooking.setEnd(start.plusHours(2));
+        em.persist(makeBooking(start.plusDays(1), start.plusDays(2), BookingStatus.REJECTED));
+
+        List<ItemDto> response = itemService.search("item", start, start.plusHours(1), 0, 10);
+        assertThat(response, hasSize(0));
+
+        response = itemService.search("item", start.plusDays(1), start.plusDays(1).plusHours(1), 0, 10);
+        assertThat(response, hasSize(1));
+        assertThat(response.get(0).getId(), equalTo(item.getId()));
+
+        response = itemService.search("item", nextBooking.getEnd(), nextBooking.getEnd().plusHours(1), 0, 10);
+        assertThat(response, hasSize(1));
+
+        assertThrows(InvalidEntityException.class,
+                () -> itemService.search("item", start.plusHours(1), start, 0, 10));
+        assertThrows(InvalidEntityException.class,
+                () -> itemService.search("item", start, null, 0, 10));
+    }
+
+    @Test
+    void getAvailability() {
+        var start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        nextBooking.setStart(start);
+        nextBooking.setEnd(start.plusHours(2));
+        em.persist(makeBooking(start.plusHours(1), start.plusHours(5), BookingStatus.APPROVED));
+        em.persist(makeBooking(start.plusHours(6), start.plusHours(7), BookingStatus.WAITING));
+        em.persist(makeBooking(start.plusHours(10), start.plusDays(2), BookingStatus.APPROVED));
+
+        var from = start.minusHours(1);
+        var to = start.plusDays(1);
+        ItemAvailabilityDto response = itemService.getAvailability(item.getId(), from, to);
+
+        assertThat(response.getBusy(), contains(
+                new IntervalDto(start, start.plusHours(5)),
+                new IntervalDto(start.plusHours(10), to)));
+        assertThat(response.getFree(), contains(
+                new IntervalDto(from, start),
+                new IntervalDto(start.plusHours(5), start.plusHours(10))));
+
+        assertThrows(EntityNotFoundException.class, () -> itemService.getAvailability(-1L, from, to));
+        assertThrows(InvalidEntityException.class, () -> itemService.getAvailability(item.getId(), to, from));
+    }
+
+    private Booking makeBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(user1);
+        booking.setStatus(status);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return booking;
     }
 
     @Test
@@ -228,10 +359,10 @@ class ItemServiceImplTest {
         CommentDto commentDto = new CommentDto();
         commentDto.setText("comment text");
         assertThrows(UserNotFoundException.class,
-                () -> itemService.addComment(100L, item.getId(), commentDto));
+                () -> itemService.addComment(-1L, item.getId(), commentDto));
 
         assertThrows(EntityNotFoundException.class,
-                () -> itemService.addComment(user1.getId(), 100L, commentDto));
+                () -> itemService.addComment(user1.getId(), -1L, commentDto));
 
         User user3 = new User();
         user3.setName("Ivan3");
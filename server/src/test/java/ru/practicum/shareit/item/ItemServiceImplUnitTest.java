@@ -3,9 +3,6 @@ package ru.practicum.shareit.item;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.storage.BookingRepository;
@@ -16,10 +13,12 @@ import ru.practicum.shareit.item.exception.InvalidCommentAuthorException;
 import ru.practicum.shareit.item.exception.OwnerMismatchException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.storage.UserIdCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.Instant;
@@ -39,6 +38,7 @@ class ItemServiceImplUnitTest {
     private ItemRepository itemRepository;
     private BookingRepository bookingRepository;
     private CommentRepository commentRepository;
+    private ItemSearchEngine itemSearchEngine;
     private ItemService itemService;
 
 
@@ -48,19 +48,22 @@ class ItemServiceImplUnitTest {
             "Item 1",
             "Item description",
             true,
-            1L
+            1L,
+            0L
     );
 
     private final User owner = new User(
             1L,
             "Owner",
-            "user@email.com"
+            "user@email.com",
+            0L
     );
 
     private final User booker = new User(
             2L,
             "Booker",
-            "user1@email.com"
+            "user1@email.com",
+            0L
     );
 
     private final Comment comment = new Comment(
@@ -77,7 +80,8 @@ class ItemServiceImplUnitTest {
             LocalDateTime.now().minusSeconds(500),
             item,
             booker,
-            BookingStatus.APPROVED
+            BookingStatus.APPROVED,
+            0L
     );
 
     private final Booking nextBooking = new Booking(
@@ -86,7 +90,8 @@ class ItemServiceImplUnitTest {
             LocalDateTime.now().plusSeconds(1000),
             item,
             booker,
-            BookingStatus.WAITING
+            BookingStatus.WAITING,
+            0L
     );
 
 
@@ -96,7 +101,9 @@ class ItemServiceImplUnitTest {
         itemRepository = Mockito.mock(ItemRepository.class);
         bookingRepository = Mockito.mock(BookingRepository.class);
         commentRepository = Mockito.mock(CommentRepository.class);
-        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository);
+        itemSearchEngine = Mockito.mock(ItemSearchEngine.class);
+        itemService = new ItemServiceImpl(itemRepository, userRepository,
+                new UserIdCache(userRepository, 10), bookingRepository, commentRepository, itemSearchEngine);
     }
 
 
@@ -132,6 +139,7 @@ class ItemServiceImplUnitTest {
         ItemDto response = itemService.addItem(1L, validDto);
         assertThat(response.getName(), equalTo(item.getName()));
         assertThat(response.getDescription(), equalTo(item.getDescription()));
+        Mockito.verify(itemSearchEngine).index(item);
     }
 
     @Test
@@ -154,7 +162,8 @@ class ItemServiceImplUnitTest {
                 updateDto.getName(),
                 updateDto.getDescription(),
                 true,
-                1L
+                1L,
+                0L
         );
 
 
@@ -181,7 +190,12 @@ class ItemServiceImplUnitTest {
 
         Mockito.when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         Mockito.when(commentRepository.findByItemId(anyLong())).thenReturn(List.of(comment));
-        Mockito.when(bookingRepository.findByItemOrderByStartAsc(any())).thenReturn(List.of(lastBooking, nextBooking));
+        Mockito.when(bookingRepository
+                .findFirstByItemIdAndStatusNotAndStartBeforeOrderByStartDescIdAsc(anyLong(), any(), any()))
+                .thenReturn(Optional.of(lastBooking));
+        Mockito.when(bookingRepository
+                .findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAscIdAsc(anyLong(), any(), any()))
+                .thenReturn(Optional.of(nextBooking));
 
         ItemDto response = itemService.getItemById(booker.getId(), 1L);
         assertThat(response.getName(), equalTo(item.getName()));
@@ -201,9 +215,10 @@ class ItemServiceImplUnitTest {
         Mockito.when(userRepository.existsById(anyLong())).thenReturn(false);
         assertThrows(UserNotFoundException.class, () -> itemService.getAllForSharer(1L, 0, 10));
 
-        Mockito.when(itemRepository.findAllBySharerId(anyLong(), any())).thenReturn(makePage());
-        Mockito.when(commentRepository.findByItemId(anyLong())).thenReturn(List.of(comment));
-        Mockito.when(bookingRepository.findByItemOrderByStartAsc(any())).thenReturn(List.of(lastBooking, nextBooking));
+        Mockito.when(itemRepository.findAllBySharerId(anyLong(), any())).thenReturn(List.of(item));
+        Mockito.when(commentRepository.findByItemIdIn(any())).thenReturn(List.of(comment));
+        Mockito.when(bookingRepository.findLastByItemIds(any(), any())).thenReturn(List.of(lastBooking));
+        Mockito.when(bookingRepository.findNextByItemIds(any(), any())).thenReturn(List.of(nextBooking));
 
         Mockito.when(userRepository.existsById(anyLong())).thenReturn(true);
 
@@ -215,13 +230,6 @@ class ItemServiceImplUnitTest {
         assertThat(ownerResponse.get(0).getNextBooking().getId(), equalTo(nextBooking.getId()));
     }
 
-    private Page<Item> makePage() {
-        int totalElements = 10;
-        int pageSize = 5;
-        PageRequest pageable = PageRequest.of(0, pageSize);
-        return new PageImpl<>(List.of(item), pageable, totalElements);
-    }
-
     @Test
     void search() {
         List<ItemDto> response = itemService.search("   ", 0, 10);
@@ -238,9 +246,8 @@ class ItemServiceImplUnitTest {
                 null
         );
 
-        Mockito.when(itemRepository
-                .findByAvailableTrueAndDescriptionContainingIgnoreCase(anyString(), any()))
-                .thenReturn(makePage());
+        Mockito.when(itemSearchEngine.search(anyString(), any()))
+                .thenReturn(List.of(item));
 
         List<ItemDto> searchResponse = itemService.search("Item", 0, 10);
         assertThat(searchResponse, hasSize(1));
@@ -269,7 +276,7 @@ class ItemServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findByBookerIdAndItemId(anyLong(), anyLong()))
                 .thenReturn(List.of(lastBooking, nextBooking));
-        Mockito.when(commentRepository.save(any()))
+        Mockito.when(commentRepository.saveAndFlush(any()))
                 .thenReturn(comment);
 
         CommentDto response = itemService.addComment(1L, 1L, commentDto);
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.ArgumentMatchers.any;
+
+class InvertedIndexItemSearchEngineTest {
+
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private InvertedIndexItemSearchEngine engine;
+
+    private final Item drill = new Item(1L, 1L, "Drill", "Cordless drill", true, null, 0L);
+    private final Item saw = new Item(2L, 1L, "Saw", "Electric saw", true, null, 0L);
+    private final Item screwdriver = new Item(3L, 2L, "Screwdriver", "Cordless screwdriver", true, null, 0L);
+
+    @BeforeEach
+    void setup() {
+        itemRepository = Mockito.mock(ItemRepository.class);
+        bookingRepository = Mockito.mock(BookingRepository.class);
+        engine = new InvertedIndexItemSearchEngine(itemRepository, bookingRepository);
+
+        Mockito.when(itemRepository.streamAvailableForIndex()).thenReturn(Stream.of(drill, saw, screwdriver)
+                .map(i -> new IndexedItem(i.getId(), i.getName(), i.getDescription())));
+        Mockito.when(itemRepository.findAllById(any())).thenAnswer(invocation -> {
+            Set<Long> ids = new HashSet<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(ids::add);
+            return Stream.of(drill, saw, screwdriver)
+                    .filter(i -> ids.contains(i.getId()))
+                    .collect(Collectors.toList());
+        });
+        engine.rebuild();
+    }
+
+    @Test
+    void search() {
+        assertThat(ids(engine.search("CORDLESS", PageRequest.of(0, 10))), contains(1L, 3L));
+        assertThat(ids(engine.search("dri", PageRequest.of(0, 10))), contains(1L));
+        assertThat(ids(engine.search("cordless screw", PageRequest.of(0, 10))), contains(3L));
+        assertThat(engine.search("hammer", PageRequest.of(0, 10)), empty());
+        assertThat(engine.search(" ", PageRequest.of(0, 10)), empty());
+
+        assertThat(ids(engine.search("cordless", PageRequest.of(1, 1))), contains(3L));
+        assertThat(engine.search("cordless", PageRequest.of(2, 1)), empty());
+    }
+
+    @Test
+    void searchNotBooked() {
+        var start = LocalDateTime.now().plusDays(1);
+        var end = start.plusDays(1);
+        Mockito.when(bookingRepository.findBookedItemIds(any(), any(), any())).thenReturn(List.of(1L));
+
+        assertThat(ids(engine.search("cordless", start, end, PageRequest.of(0, 10))), contains(3L));
+        assertThat(ids(engine.search("drill", start, end, PageRequest.of(0, 10))), empty());
+        assertThat(engine.search("cordless", start, end, PageRequest.of(1, 1)), empty());
+        Mockito.verify(bookingRepository, Mockito.times(2)).findBookedItemIds(List.of(1L, 3L), start, end);
+    }
+
+    @Test
+    void index() {
+        saw.setDescription("Cordless saw");
+        engine.index(saw);
+        assertThat(ids(engine.search("cordless", PageRequest.of(0, 10))), contains(1L, 2L, 3L));
+        assertThat(engine.search("electric", PageRequest.of(0, 10)), empty());
+
+        drill.setAvailable(false);
+        engine.index(drill);
+        assertThat(ids(engine.search("cordless", PageRequest.of(0, 10))), contains(2L, 3L));
+        assertThat(engine.search("drill", PageRequest.of(0, 10)), empty());
+    }
+
+    @Test
+    void searchUsesSqlUntilBuilt() {
+        var notBuilt = new InvertedIndexItemSearchEngine(itemRepository, bookingRepository);
+        Mockito.when(itemRepository.searchAvailable("100\\%", PageRequest.of(0, 10))).thenReturn(List.of(saw));
+
+        assertThat(ids(notBuilt.search("100%", PageRequest.of(0, 10))), contains(2L));
+    }
+
+    @Test
+    void updateCommittedDuringRebuildIsNotOverwritten() {
+        Mockito.when(itemRepository.streamAvailableForIndex()).thenReturn(Stream.of(drill, saw, screwdriver)
+                .map(i -> new IndexedItem(i.getId(), i.getName(), i.getDescription()))
+                .peek(i -> {
+                    if (i.getId() == 2L) {
+                        // the saw is renamed after the stream has already read its old text
+                        saw.setDescription("Hammer");
+                        engine.index(saw);
+                    }
+                }));
+
+        engine.rebuild();
+
+        assertThat(engine.search("electric", PageRequest.of(0, 10)), empty());
+        assertThat(ids(engine.search("hammer", PageRequest.of(0, 10))), contains(2L));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -52,7 +52,7 @@ public class ItemRequestServiceImplTest {
     void testAddRequest() {
 
         var requestDto = new ItemRequestDto();
-        assertThrows(UserNotFoundException.class, () -> service.addRequest(100L, requestDto));
+        assertThrows(UserNotFoundException.class, () -> service.addRequest(-1L, requestDto));
 
         String requestText = "Test request";
         requestDto.setDescription(requestText);
@@ -92,6 +92,40 @@ public class ItemRequestServiceImplTest {
         }
     }
 
+    @Test
+    void testGetAllRequestsPagesOtherUsersRequests() {
+        List<ItemRequest> requestList = List.of(
+                makeRequest("Request 1", user2.getId(), 0),
+                makeRequest("Own request 1", user1.getId(), 0),
+                makeRequest("Request 2", user2.getId(), 0),
+                makeRequest("Own request 2", user1.getId(), 0),
+                makeRequest("Request 3", user2.getId(), 0)
+        );
+        requestList.forEach(em::persist);
+        em.flush();
+
+        var item = new Item();
+        item.setSharerId(user1.getId());
+        item.setName("Item");
+        item.setDescription("Item description");
+        item.setAvailable(true);
+        item.setRequestId(requestList.get(2).getId());
+        em.persist(item);
+        em.flush();
+
+        List<ItemRequestDto> requests = service.getAllRequests(0, 2, user1.getId());
+        assertThat(requests, hasSize(2));
+        assertThat(requests.get(0).getDescription(), equalTo("Request 3"));
+        assertThat(requests.get(0).getItems(), hasSize(0));
+        assertThat(requests.get(1).getDescription(), equalTo("Request 2"));
+        assertThat(requests.get(1).getItems(), hasSize(1));
+        assertThat(requests.get(1).getItems().get(0).getId(), equalTo(item.getId()));
+
+        requests = service.getAllRequests(2, 2, user1.getId());
+        assertThat(requests, hasSize(1));
+        assertThat(requests.get(0).getDescription(), equalTo("Request 1"));
+    }
+
     private ItemRequest makeRequest(String description, Long userId, int offsetSeconds) {
         var request = new ItemRequest();
         request.setDescription(description);
@@ -103,7 +137,7 @@ public class ItemRequestServiceImplTest {
     @Test
     void testGetRequestById() {
 
-        assertThrows(EntityNotFoundException.class, () -> service.getRequestById(user1.getId(), 100L));
+        assertThrows(EntityNotFoundException.class, () -> service.getRequestById(user1.getId(), -1L));
 
         var request = makeRequest("Request", user1.getId(), 0);
         em.persist(request);
@@ -130,7 +164,7 @@ public class ItemRequestServiceImplTest {
 
     @Test
     void testGetUserRequests() {
-        assertThrows(UserNotFoundException.class, () -> service.getUserRequests(100L));
+        assertThrows(UserNotFoundException.class, () -> service.getUserRequests(-1L));
 
         List<ItemRequest> requestList = List.of(
                 makeRequest("Request 1", user1.getId(), 10),
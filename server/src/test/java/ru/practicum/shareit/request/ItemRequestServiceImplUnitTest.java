@@ -10,6 +10,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.storage.UserIdCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.Instant;
@@ -29,7 +30,8 @@ class ItemRequestServiceImplUnitTest {
     private static final User user = new User(
             1L,
             "User name",
-            "user@email.com"
+            "user@email.com",
+            0L
     );
 
     private static final ItemRequest request = new ItemRequest(
@@ -43,7 +45,8 @@ class ItemRequestServiceImplUnitTest {
                     "Item 1",
                     "Item description",
                     true,
-                    1L))
+                    1L,
+                    0L))
             );
 
     private ItemRequestRepository itemRequestRepository;
@@ -57,7 +60,7 @@ class ItemRequestServiceImplUnitTest {
         userRepository = Mockito.mock(UserRepository.class);
         itemRepository = Mockito.mock(ItemRepository.class);
         itemRequestService = new ItemRequestServiceImpl(
-                itemRequestRepository, userRepository, itemRepository);
+                itemRequestRepository, new UserIdCache(userRepository, 10), itemRepository);
     }
 
     @Test
@@ -67,7 +70,7 @@ class ItemRequestServiceImplUnitTest {
         Mockito.when(userRepository.existsById(anyLong())).thenReturn(false);
         assertThrows(UserNotFoundException.class, () -> itemRequestService.addRequest(100L, dto));
 
-        Mockito.when(itemRequestRepository.save(any())).thenReturn(request);
+        Mockito.when(itemRequestRepository.saveAndFlush(any())).thenReturn(request);
         Mockito.when(userRepository.existsById(anyLong())).thenReturn(true);
         ItemRequestDto validDto = new ItemRequestDto(request.getId(), request.getDescription(), LocalDateTime.now(), null);
         ItemRequestDto response = itemRequestService.addRequest(user.getId(), validDto);
@@ -91,13 +94,15 @@ class ItemRequestServiceImplUnitTest {
     @Test
     void getAllRequests() {
 
-        Mockito.when(itemRequestRepository.getAllWithResponses(any())).thenReturn(List.of(request));
+        Mockito.when(itemRequestRepository.findByRequesterIdNot(anyLong(), any())).thenReturn(List.of(request));
+        Mockito.when(itemRepository.findByRequestIdIn(any())).thenReturn(request.getResponses());
 
         List<ItemRequestDto> response = itemRequestService.getAllRequests(0, 10, 2L);
         assertThat(response, hasSize(1));
         assertThat(response.get(0).getDescription(), equalTo(request.getDescription()));
         assertThat(response.get(0).getItems(), hasSize(1));
 
+        Mockito.when(itemRequestRepository.findByRequesterIdNot(anyLong(), any())).thenReturn(List.of());
         List<ItemRequestDto> emptyResponse = itemRequestService.getAllRequests(0, 10, 1L);
         assertThat(emptyResponse, hasSize(0));
     }
@@ -5,23 +5,41 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.config.ETagConfig;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
+@Import(ETagConfig.class)
 class UserControllerTest {
 
     @Autowired
@@ -41,17 +59,68 @@ class UserControllerTest {
 
     @Test
     void getAllUsers() throws Exception {
-        when(userService.getAllUsers())
-                .thenReturn(List.of(userDto));
-
-        mvc.perform(get("/users")
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDto);
+            action.accept(userDto);
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        MvcResult result = mvc.perform(get("/users")
                         .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class))
                 .andExpect(jsonPath("$[0].email", is(userDto.getEmail())))
                 .andExpect(jsonPath("$[0].name", is(userDto.getName())));
+    }
+
+    @Test
+    void getAllUsersRunsOnStreamingExecutor() throws Exception {
+        AtomicReference<String> thread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        MvcResult result = mvc.perform(get("/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        assertThat(thread.get(), startsWith("streaming-"));
+        assertThat(result.getRequest().getAsyncContext().getTimeout(), equalTo(Duration.ofHours(1).toMillis()));
+    }
 
+    @Test
+    void getUsersPage() throws Exception {
+        when(userService.getAllUsers(anyInt(), anyInt()))
+                .thenReturn(List.of(userDto));
+
+        mvc.perform(get("/users?from=0&size=10")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class));
+        verify(userService).getAllUsers(0, 10);
+    }
+
+    @Test
+    void getUsersPageWithDefaultSize() throws Exception {
+        when(userService.getAllUsers(anyInt(), anyInt()))
+                .thenReturn(List.of(userDto));
+
+        mvc.perform(get("/users?from=20"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncNotStarted())
+                .andExpect(jsonPath("$", hasSize(1)));
+        verify(userService).getAllUsers(20, 10);
     }
 
     @Test
@@ -67,6 +136,40 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name", is(userDto.getName())));
     }
 
+    @Test
+    void getUserNotModified() throws Exception {
+        when(userService.getUserETag(anyLong()))
+                .thenReturn("user-1-3");
+        when(userService.getUser(anyLong()))
+                .thenReturn(userDto);
+
+        mvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"user-1-3\""));
+
+        mvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"user-1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(userService, times(1)).getUser(1L);
+    }
+
+    @Test
+    void getUsersETagFromBody() throws Exception {
+        when(userService.getAllUsers(anyInt(), anyInt()))
+                .thenReturn(List.of(userDto));
+
+        String etag = mvc.perform(get("/users?from=0&size=10"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users?from=0&size=10")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void addUser() throws Exception {
         when(userService.addUser(any()))
@@ -13,6 +13,7 @@ import ru.practicum.shareit.user.exception.UserNotFoundException;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -48,13 +49,26 @@ class UserServiceImplTest {
 
     @Test
     void getAllUsers() {
-        List<UserDto> response = userService.getAllUsers();
+        List<UserDto> response = userService.getAllUsers(0, 10);
         assertThat(response, hasSize(2));
+
+        response = userService.getAllUsers(1, 1);
+        assertThat(response, hasSize(1));
+        assertThat(response.get(0).getId(), equalTo(user2.getId()));
+    }
+
+    @Test
+    void streamAllUsers() {
+        List<UserDto> response = new ArrayList<>();
+        userService.streamAllUsers(response::add);
+        assertThat(response, contains(
+                new UserDto(user1.getId(), user1.getEmail(), user1.getName()),
+                new UserDto(user2.getId(), user2.getEmail(), user2.getName())));
     }
 
     @Test
     void getUser() {
-        assertThrows(UserNotFoundException.class, () -> userService.getUser(100L));
+        assertThrows(UserNotFoundException.class, () -> userService.getUser(-1L));
         UserDto response = userService.getUser(user1.getId());
         assertThat(response.getId(), equalTo(user1.getId()));
         assertThat(response.getName(), equalTo(user1.getName()));
@@ -81,7 +95,7 @@ class UserServiceImplTest {
     @Test
     void updateUser() {
         UserDto dto = new UserDto(null, "ivan2@email.com", null);
-        assertThrows(UserNotFoundException.class, () -> userService.updateUser(100L, dto));
+        assertThrows(UserNotFoundException.class, () -> userService.updateUser(-1L, dto));
         assertThrows(DataConflictException.class, () -> userService.updateUser(user1.getId(), dto));
 
         UserDto updateDto1 = new UserDto(null, "updated@email.com", null);
@@ -91,11 +105,14 @@ class UserServiceImplTest {
         UserDto updateDto2 = new UserDto(null, null, "updated name");
         response = userService.updateUser(user1.getId(), updateDto2);
         assertThat(response.getName(), equalTo(updateDto2.getName()));
+
+        em.flush();
+        assertThat(user1.getVersion(), greaterThan(0L));
     }
 
     @Test
     void removeUser() {
-        assertThrows(UserNotFoundException.class, () -> userService.removeUser(100L));
+        assertThrows(UserNotFoundException.class, () -> userService.removeUser(-1L));
 
         TypedQuery<User> query = em.createQuery("Select u from User u where u.id = :id", User.class);
         User user = query.setParameter("id", user1.getId()).getSingleResult();
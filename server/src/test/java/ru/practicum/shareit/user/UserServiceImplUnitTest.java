@@ -5,6 +5,7 @@ import org.mockito.Mockito;
 import ru.practicum.shareit.error.exception.DataConflictException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.storage.UserIdCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.Collections;
@@ -15,7 +16,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 
@@ -24,21 +27,22 @@ class UserServiceImplUnitTest {
     private static final User user = new User(
             1L,
             "User name",
-            "user@email.com"
+            "user@email.com",
+            0L
     );
 
     @Test
     void getAllUsers() {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        UserService userService = new UserServiceImpl(userRepository);
+        UserService userService = new UserServiceImpl(userRepository, new UserIdCache(userRepository, 10));
 
-        Mockito.when(userRepository.findAll()).thenReturn(Collections.emptyList());
-        var result = userService.getAllUsers();
+        Mockito.when(userRepository.findAllBy(any())).thenReturn(Collections.emptyList());
+        var result = userService.getAllUsers(0, 10);
         assertThat(result, hasSize(0));
 
-        Mockito.when(userRepository.findAll()).thenReturn(List.of(user));
+        Mockito.when(userRepository.findAllBy(any())).thenReturn(List.of(user));
 
-        result = userService.getAllUsers();
+        result = userService.getAllUsers(0, 10);
         assertThat(result, hasSize(1));
         assertThat(result.get(0).getName(), equalTo(user.getName()));
     }
@@ -46,7 +50,7 @@ class UserServiceImplUnitTest {
     @Test
     void getUser() {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        UserService userService = new UserServiceImpl(userRepository);
+        UserService userService = new UserServiceImpl(userRepository, new UserIdCache(userRepository, 10));
 
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
         assertThrows(UserNotFoundException.class, () -> userService.getUser(100L));
@@ -62,11 +66,11 @@ class UserServiceImplUnitTest {
     void addUser() {
 
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        UserService userService = new UserServiceImpl(userRepository);
+        UserService userService = new UserServiceImpl(userRepository, new UserIdCache(userRepository, 10));
 
         UserDto validDto = new UserDto(user.getId(), user.getEmail(), user.getName());
 
-        Mockito.when(userRepository.save(any())).thenReturn(user);
+        Mockito.when(userRepository.saveAndFlush(any())).thenReturn(user);
         UserDto response = userService.addUser(validDto);
         assertThat(response.getName(), equalTo(user.getName()));
         assertThat(response.getEmail(), equalTo(user.getEmail()));
@@ -75,7 +79,7 @@ class UserServiceImplUnitTest {
     @Test
     void updateUser() {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        UserService userService = new UserServiceImpl(userRepository);
+        UserService userService = new UserServiceImpl(userRepository, new UserIdCache(userRepository, 10));
 
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
         assertThrows(UserNotFoundException.class, () -> userService.getUser(100L));
@@ -87,7 +91,7 @@ class UserServiceImplUnitTest {
         assertThrows(DataConflictException.class, () -> userService.updateUser(user.getId(), userSameEmail));
 
 
-        User updatedUser = new User(user.getId(), "updated@email.com", "updated name");
+        User updatedUser = new User(user.getId(), "updated@email.com", "updated name", 0L);
         UserDto userUpdate = new UserDto(user.getId(), updatedUser.getEmail(), updatedUser.getName());
 
         Mockito.when(userRepository.save(any())).thenReturn(updatedUser);
@@ -101,13 +105,18 @@ class UserServiceImplUnitTest {
     @Test
     void removeUser() {
         UserRepository userRepository = Mockito.mock(UserRepository.class);
-        UserService userService = new UserServiceImpl(userRepository);
+        UserIdCache userIdCache = new UserIdCache(userRepository, 10);
+        UserService userService = new UserServiceImpl(userRepository, userIdCache);
 
         Mockito.when(userRepository.existsById(any())).thenReturn(false);
         assertThrows(UserNotFoundException.class, () -> userService.removeUser(user.getId()));
 
         Mockito.when(userRepository.existsById(any())).thenReturn(true);
+        assertTrue(userIdCache.exists(user.getId()));
         assertDoesNotThrow(() -> userService.removeUser(user.getId()));
 
+        Mockito.when(userRepository.existsById(any())).thenReturn(false);
+        assertFalse(userIdCache.exists(user.getId()));
+
     }
 }
\ No newline at end of file
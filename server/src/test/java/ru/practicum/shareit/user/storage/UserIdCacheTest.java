@@ -0,0 +1,60 @@
+package ru.practicum.shareit.user.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class UserIdCacheTest {
+
+    private UserRepository userRepository;
+    private UserIdCache userIdCache;
+
+    @BeforeEach
+    void setup() {
+        userRepository = Mockito.mock(UserRepository.class);
+        userIdCache = new UserIdCache(userRepository, 2);
+    }
+
+    @Test
+    void exists() {
+        Mockito.when(userRepository.existsById(anyLong())).thenReturn(false);
+        assertFalse(userIdCache.exists(1L));
+        assertFalse(userIdCache.exists(1L));
+        verify(userRepository, times(2)).existsById(1L);
+
+        Mockito.when(userRepository.existsById(anyLong())).thenReturn(true);
+        assertTrue(userIdCache.exists(1L));
+        assertTrue(userIdCache.exists(1L));
+        verify(userRepository, times(3)).existsById(1L);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        Mockito.when(userRepository.existsById(anyLong())).thenReturn(true);
+        userIdCache.exists(1L);
+        userIdCache.exists(2L);
+        userIdCache.exists(1L);
+        userIdCache.exists(3L);
+
+        userIdCache.exists(1L);
+        verify(userRepository, times(1)).existsById(1L);
+        userIdCache.exists(2L);
+        verify(userRepository, times(2)).existsById(2L);
+    }
+
+    @Test
+    void evict() {
+        Mockito.when(userRepository.existsById(anyLong())).thenReturn(true);
+        assertTrue(userIdCache.exists(1L));
+
+        userIdCache.evict(1L);
+        Mockito.when(userRepository.existsById(anyLong())).thenReturn(false);
+        assertFalse(userIdCache.exists(1L));
+    }
+}